@@ -0,0 +1,32 @@
+package ca.gbc.comp3095.eventservice.config;
+
+/**
+ * Per-thread override that sends read-only transactions to the primary instead of the
+ * read replica, set by {@link ReadYourWritesFilter} for mutating requests and for a
+ * client's requests shortly after its own write. A no-op when no replica is configured.
+ */
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<Boolean>();
+
+    private DataSourceRouting() {
+    }
+
+    public static boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(PRIMARY_ONLY.get());
+    }
+
+    static Boolean forcePrimary() {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        return previous;
+    }
+
+    static void restore(Boolean previous) {
+        if (previous == null) {
+            PRIMARY_ONLY.remove();
+        } else {
+            PRIMARY_ONLY.set(previous);
+        }
+    }
+}
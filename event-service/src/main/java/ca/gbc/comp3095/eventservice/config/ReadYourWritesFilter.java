@@ -0,0 +1,73 @@
+package ca.gbc.comp3095.eventservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Replica-lag guard. A mutating request runs entirely against the primary and leaves a
+ * short-lived cookie on the client; while it is valid, that client's reads also go to
+ * the primary, so it always sees its own writes. Other clients keep reading the replica.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "event-ryw";
+    private static final Set<String> SAFE_METHODS = new HashSet<String>(Arrays.asList("GET", "HEAD", "OPTIONS"));
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        boolean mutating = !SAFE_METHODS.contains(request.getMethod());
+        if (mutating) {
+            // Set before the body is written; a failed write only costs a few primary reads
+            Cookie cookie = new Cookie(COOKIE_NAME, String.valueOf(System.currentTimeMillis() + window.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.getSeconds()));
+            response.addCookie(cookie);
+        }
+        if (!mutating && !hasRecentWrite(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Boolean previous = DataSourceRouting.forcePrimary();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            DataSourceRouting.restore(previous);
+        }
+    }
+
+    private static boolean hasRecentWrite(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -1,13 +1,113 @@
 package ca.gbc.comp3095.eventservice.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.time.Duration;
+
+/**
+ * HTTP clients for wellness-resource-service.
+ *
+ * Both keep connections alive in a bounded pool, so calls reuse warm connections instead
+ * of opening one per request, and both have explicit connect, pool-wait and response
+ * timeouts. Idle connections are closed before the server's keep-alive timeout would.
+ * Pool usage is exported as httpcomponents.httpclient.pool.* (blocking client) and
+ * reactor.netty.connection.provider.* (WebClient).
+ */
 @Configuration
 public class RestClientConfig {
+
+    private static final String POOL_NAME = "resourceService";
+
+    @Value("${resource.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${resource.http.connect-timeout:1s}")
+    private Duration connectTimeout;
+
+    @Value("${resource.http.response-timeout:3s}")
+    private Duration responseTimeout;
+
+    // How long a call waits for a free pooled connection before failing
+    @Value("${resource.http.pool-acquire-timeout:500ms}")
+    private Duration poolAcquireTimeout;
+
+    @Value("${resource.http.max-idle:15s}")
+    private Duration maxIdle;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager resourceConnectionManager(MeterRegistry meterRegistry) {
+        // All calls go to one host, so the per-route limit is the pool size
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(timeout(connectTimeout))
+                        .setSocketTimeout(timeout(responseTimeout))
+                        // Re-check connections idle this long before reuse; cheaper than a failed request
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient resourceHttpClient(PoolingHttpClientConnectionManager resourceConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(resourceConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(timeout(poolAcquireTimeout))
+                        .setResponseTimeout(timeout(responseTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(maxIdle.toMillis()))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(CloseableHttpClient resourceHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(resourceHttpClient));
+    }
+
+    // Non-blocking client for fanning out several lookups without a thread per call
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public WebClient resourceWebClient(WebClient.Builder builder,
+                                       @Value("${resource.base-url}") String baseUrl) {
+        ConnectionProvider provider = ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(poolAcquireTimeout)
+                .maxIdleTime(maxIdle)
+                .metrics(true)
+                .build();
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout)
+                .compress(true);
+        return builder.baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    private static Timeout timeout(Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
     }
 }
@@ -0,0 +1,27 @@
+package ca.gbc.comp3095.eventservice.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of event summaries. Pass {@code nextCursor} back as {@code cursor}
+ * (with the same sort and filters) to get the following page; it is null on the last page.
+ */
+public class EventPage {
+    private List<EventSummary> items;
+    private String nextCursor;
+    private int size;
+
+    public EventPage() {}
+    public EventPage(List<EventSummary> items, String nextCursor, int size) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.size = size;
+    }
+
+    public List<EventSummary> getItems() { return items; }
+    public void setItems(List<EventSummary> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+}
@@ -0,0 +1,31 @@
+package ca.gbc.comp3095.eventservice.dto;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Listing projection of an event: built directly from the selected columns by the
+ * repository, so no entity is loaded or tracked.
+ */
+public class EventSummary {
+    private Long id;
+    private String title;
+    private OffsetDateTime startsAt;
+    private String location;
+
+    public EventSummary() {}
+    public EventSummary(Long id, String title, OffsetDateTime startsAt, String location) {
+        this.id = id;
+        this.title = title;
+        this.startsAt = startsAt;
+        this.location = location;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public OffsetDateTime getStartsAt() { return startsAt; }
+    public void setStartsAt(OffsetDateTime startsAt) { this.startsAt = startsAt; }
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+}
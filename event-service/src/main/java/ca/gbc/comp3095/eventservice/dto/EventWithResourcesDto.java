@@ -1,12 +1,23 @@
 package ca.gbc.comp3095.eventservice.dto;
 
 import ca.gbc.comp3095.eventservice.model.Event;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
+import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
 
 public class EventWithResourcesDto {
     private Event event;
     private List<ResourceDto> resources;
+    // True when resources come from an older local copy (being refreshed, or the service is failing)
+    private boolean stale;
+    // When resources were fetched from wellness-resource-service; absent if never
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Instant resourcesFetchedAt;
+    // Set when this event's resources could not be loaded (batch lookups only); resources is then empty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
 
     public EventWithResourcesDto() {}
     public EventWithResourcesDto(Event event, List<ResourceDto> resources) {
@@ -14,8 +25,28 @@ public class EventWithResourcesDto {
         this.resources = resources;
     }
 
+    public static EventWithResourcesDto of(Event event, ResourceLookup lookup) {
+        EventWithResourcesDto dto = new EventWithResourcesDto(event, lookup.getResources());
+        dto.setStale(lookup.isStale());
+        dto.setResourcesFetchedAt(lookup.getFetchedAt());
+        return dto;
+    }
+
+    public static EventWithResourcesDto failed(Event event, String error) {
+        EventWithResourcesDto dto = new EventWithResourcesDto(event, Collections.<ResourceDto>emptyList());
+        dto.setStale(true);
+        dto.setError(error);
+        return dto;
+    }
+
     public Event getEvent() { return event; }
     public void setEvent(Event event) { this.event = event; }
     public List<ResourceDto> getResources() { return resources; }
     public void setResources(List<ResourceDto> resources) { this.resources = resources; }
+    public boolean isStale() { return stale; }
+    public void setStale(boolean stale) { this.stale = stale; }
+    public Instant getResourcesFetchedAt() { return resourcesFetchedAt; }
+    public void setResourcesFetchedAt(Instant resourcesFetchedAt) { this.resourcesFetchedAt = resourcesFetchedAt; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
 }
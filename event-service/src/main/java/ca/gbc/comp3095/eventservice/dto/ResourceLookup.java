@@ -0,0 +1,32 @@
+package ca.gbc.comp3095.eventservice.dto;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resources of one event as served: fresh from wellness-resource-service or the local
+ * cache, stale (older than the freshness TTL, or a last-known-good copy while the service
+ * is failing), or unavailable when there is no copy at all.
+ */
+public class ResourceLookup {
+    private final List<ResourceDto> resources;
+    private final Instant fetchedAt;
+    private final boolean stale;
+
+    public ResourceLookup(List<ResourceDto> resources, Instant fetchedAt, boolean stale) {
+        this.resources = resources;
+        this.fetchedAt = fetchedAt;
+        this.stale = stale;
+    }
+
+    public static ResourceLookup unavailable() {
+        return new ResourceLookup(Collections.<ResourceDto>emptyList(), null, true);
+    }
+
+    public List<ResourceDto> getResources() { return resources; }
+    // When the resources were fetched from the service; null if unavailable
+    public Instant getFetchedAt() { return fetchedAt; }
+    public boolean isStale() { return stale; }
+    public boolean isAvailable() { return fetchedAt != null; }
+}
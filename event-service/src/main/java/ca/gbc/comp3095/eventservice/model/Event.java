@@ -1,10 +1,12 @@
 package ca.gbc.comp3095.eventservice.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "events")
+// (starts_at, id) serves date-range filters and the keyset-paginated listing in both directions
+@Table(name = "events", indexes = @Index(name = "idx_events_starts_at_id", columnList = "starts_at, id"))
 public class Event {
 
     @Id
@@ -20,6 +22,19 @@ public class Event {
     @Column(length = 120)
     private String location;
 
+    // Seats on offer; null means unlimited. Set on insert, then changed only by
+    // EventRepository.updateCapacity, which checks it against seats_taken in the same statement
+    @Column(updatable = false)
+    private Integer capacity;
+
+    // Maintained only by EventRepository.reserveSeat, never written from the entity, so a
+    // concurrent update of the event cannot overwrite a reservation. Registrations from before
+    // the column existed are counted in by schema.sql
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "seats_taken", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "integer default 0")
+    private int seatsTaken;
+
     public Event() {}
     public Event(String title) { this.title = title; }
 
@@ -30,4 +45,7 @@ public class Event {
     public void setStartsAt(OffsetDateTime startsAt) { this.startsAt = startsAt; }
     public String getLocation() { return location; }
     public void setLocation(String location) { this.location = location; }
+    public Integer getCapacity() { return capacity; }
+    public void setCapacity(Integer capacity) { this.capacity = capacity; }
+    public int getSeatsTaken() { return seatsTaken; }
 }
@@ -1,19 +1,98 @@
 package ca.gbc.comp3095.eventservice.repository;
 
+import ca.gbc.comp3095.eventservice.dto.EventSummary;
 import ca.gbc.comp3095.eventservice.model.Event;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.util.List;
 
 @Repository
+// Query methods run read-only, so they can be routed to a read replica (see ReadReplicaConfig)
+@Transactional(readOnly = true)
 public interface EventRepository extends JpaRepository<Event, Long> {
 
     List<Event> findByStartsAtBetween(OffsetDateTime start, OffsetDateTime end);
 
-    List<Event> findByLocationContainingIgnoreCase(String q);
+    // Takes one seat if any is left: 1 on success, 0 when the event is full or gone. A single
+    // conditional UPDATE cannot oversell; it holds the event row lock until the caller commits.
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE events SET seats_taken = seats_taken + 1 "
+            + "WHERE id = :id AND (capacity IS NULL OR seats_taken < capacity)",
+            nativeQuery = true)
+    int reserveSeat(@Param("id") Long id);
 
-    List<Event> findByStartsAtBetweenAndLocationContainingIgnoreCase(
-            OffsetDateTime start, OffsetDateTime end, String q);
+    // Sets the capacity unless more seats than that are already taken: 1 on success, 0 when it
+    // would be below seats_taken (or the event is gone). Same row lock as reserveSeat, so a
+    // sign-up either lands before and is counted, or after and sees the new capacity.
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE events SET capacity = :capacity WHERE id = :id AND seats_taken <= :capacity",
+            nativeQuery = true)
+    int updateCapacity(@Param("id") Long id, @Param("capacity") int capacity);
+
+    // Batch resource lookups over a date range: at most limit events, earliest first
+    List<Event> findByStartsAtBetweenOrderByStartsAtAscIdAsc(OffsetDateTime start, OffsetDateTime end, Limit limit);
+
+    /** ILIKE pattern matching {@code q} anywhere, with LIKE wildcards in {@code q} taken literally. */
+    static String containsPattern(String q) {
+        return "%" + q.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    // Keyset pages of summaries: the next page starts after the (startsAt, id) of the last
+    // row of the previous one, a range scan on idx_events_starts_at_id. The bare bound on
+    // startsAt is implied by the tie-break but is what lets the scan start at the cursor. The
+    // date range is always bound (open ends use sentinels). With a location filter the
+    // pattern (from containsPattern) is always applied, never made optional with an OR, so
+    // the planner can pick idx_events_location_trgm when it is selective.
+    @Query("select new ca.gbc.comp3095.eventservice.dto.EventSummary(e.id, e.title, e.startsAt, e.location) "
+            + "from Event e where e.startsAt between :start and :end "
+            + "and e.startsAt >= :afterStartsAt and (e.startsAt > :afterStartsAt or e.id > :afterId) "
+            + "order by e.startsAt asc, e.id asc")
+    List<EventSummary> findSummariesAscending(@Param("start") OffsetDateTime start,
+                                              @Param("end") OffsetDateTime end,
+                                              @Param("afterStartsAt") OffsetDateTime afterStartsAt,
+                                              @Param("afterId") Long afterId,
+                                              Limit limit);
+
+    @Query("select new ca.gbc.comp3095.eventservice.dto.EventSummary(e.id, e.title, e.startsAt, e.location) "
+            + "from Event e where e.startsAt between :start and :end "
+            + "and e.location ilike :pattern "
+            + "and e.startsAt >= :afterStartsAt and (e.startsAt > :afterStartsAt or e.id > :afterId) "
+            + "order by e.startsAt asc, e.id asc")
+    List<EventSummary> findSummariesAscendingByLocation(@Param("start") OffsetDateTime start,
+                                                        @Param("end") OffsetDateTime end,
+                                                        @Param("pattern") String pattern,
+                                                        @Param("afterStartsAt") OffsetDateTime afterStartsAt,
+                                                        @Param("afterId") Long afterId,
+                                                        Limit limit);
+
+    @Query("select new ca.gbc.comp3095.eventservice.dto.EventSummary(e.id, e.title, e.startsAt, e.location) "
+            + "from Event e where e.startsAt between :start and :end "
+            + "and e.startsAt <= :beforeStartsAt and (e.startsAt < :beforeStartsAt or e.id < :beforeId) "
+            + "order by e.startsAt desc, e.id desc")
+    List<EventSummary> findSummariesDescending(@Param("start") OffsetDateTime start,
+                                               @Param("end") OffsetDateTime end,
+                                               @Param("beforeStartsAt") OffsetDateTime beforeStartsAt,
+                                               @Param("beforeId") Long beforeId,
+                                               Limit limit);
+
+    @Query("select new ca.gbc.comp3095.eventservice.dto.EventSummary(e.id, e.title, e.startsAt, e.location) "
+            + "from Event e where e.startsAt between :start and :end "
+            + "and e.location ilike :pattern "
+            + "and e.startsAt <= :beforeStartsAt and (e.startsAt < :beforeStartsAt or e.id < :beforeId) "
+            + "order by e.startsAt desc, e.id desc")
+    List<EventSummary> findSummariesDescendingByLocation(@Param("start") OffsetDateTime start,
+                                                         @Param("end") OffsetDateTime end,
+                                                         @Param("pattern") String pattern,
+                                                         @Param("beforeStartsAt") OffsetDateTime beforeStartsAt,
+                                                         @Param("beforeId") Long beforeId,
+                                                         Limit limit);
 }
@@ -2,9 +2,11 @@ package ca.gbc.comp3095.eventservice.repository;
 
 import ca.gbc.comp3095.eventservice.model.Registration;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
+@Transactional(readOnly = true)
 public interface RegistrationRepository extends JpaRepository<Registration, Long> {
     List<Registration> findByEvent_Id(Long eventId);
 }
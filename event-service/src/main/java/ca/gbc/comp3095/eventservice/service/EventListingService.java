@@ -0,0 +1,129 @@
+package ca.gbc.comp3095.eventservice.service;
+
+import ca.gbc.comp3095.eventservice.dto.EventPage;
+import ca.gbc.comp3095.eventservice.dto.EventSummary;
+import ca.gbc.comp3095.eventservice.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Keyset-paginated event listing ordered by (startsAt, id), ascending or descending.
+ *
+ * Each page continues after the last row of the previous one instead of skipping an
+ * offset, so every page costs the same index range scan however deep the client reads,
+ * and rows inserted meanwhile do not shift later pages. Pages hold {@link EventSummary}
+ * projections, never entities.
+ */
+@Service
+public class EventListingService {
+
+    public static final String SORT_ASC = "startsAt,asc";
+    public static final String SORT_DESC = "startsAt,desc";
+
+    // Bounds for an open date range; inside what Postgres timestamptz can hold
+    private static final OffsetDateTime EARLIEST = OffsetDateTime.of(1900, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final OffsetDateTime LATEST = OffsetDateTime.of(9999, 12, 31, 23, 59, 59, 0, ZoneOffset.UTC);
+
+    private final EventRepository events;
+    private final int maxPageSize;
+
+    public EventListingService(EventRepository events,
+                               @Value("${event.listing.max-page-size:100}") int maxPageSize) {
+        this.events = events;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * One page of events in the optional date range whose location contains {@code location}
+     * (case-insensitive). {@code size} is clamped to the configured maximum.
+     */
+    @Transactional(readOnly = true)
+    public EventPage page(OffsetDateTime start, OffsetDateTime end, String location,
+                          String sort, String cursor, int size) {
+        boolean descending = isDescending(sort);
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        OffsetDateTime from = start != null ? start : EARLIEST;
+        OffsetDateTime to = end != null ? end : LATEST;
+        String pattern = StringUtils.hasText(location) ? EventRepository.containsPattern(location) : null;
+        // Fetch one extra row to know whether another page exists
+        Limit limit = Limit.of(pageSize + 1);
+
+        // Without a cursor: the range bound itself, with an id on the far side of every row
+        OffsetDateTime afterStartsAt = descending ? to : from;
+        Long afterId = descending ? Long.MAX_VALUE : 0L;
+        if (cursor != null) {
+            Cursor after = Cursor.decode(cursor);
+            afterStartsAt = after.startsAt;
+            afterId = after.id;
+        }
+
+        List<EventSummary> rows;
+        if (pattern == null) {
+            rows = descending
+                    ? events.findSummariesDescending(from, to, afterStartsAt, afterId, limit)
+                    : events.findSummariesAscending(from, to, afterStartsAt, afterId, limit);
+        } else {
+            rows = descending
+                    ? events.findSummariesDescendingByLocation(from, to, pattern, afterStartsAt, afterId, limit)
+                    : events.findSummariesAscendingByLocation(from, to, pattern, afterStartsAt, afterId, limit);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new EventPage(rows, null, rows.size());
+        }
+        List<EventSummary> items = rows.subList(0, pageSize);
+        EventSummary last = items.get(pageSize - 1);
+        return new EventPage(items, new Cursor(last.getStartsAt(), last.getId()).encode(), pageSize);
+    }
+
+    private static boolean isDescending(String sort) {
+        if (sort == null || SORT_ASC.equalsIgnoreCase(sort) || "startsAt".equalsIgnoreCase(sort)) {
+            return false;
+        }
+        if (SORT_DESC.equalsIgnoreCase(sort)) {
+            return true;
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Unsupported sort '" + sort + "'; use " + SORT_ASC + " or " + SORT_DESC);
+    }
+
+    /** Position after a row: its startsAt and id, opaque to clients. */
+    static final class Cursor {
+        final OffsetDateTime startsAt;
+        final Long id;
+
+        Cursor(OffsetDateTime startsAt, Long id) {
+            this.startsAt = startsAt;
+            this.id = id;
+        }
+
+        String encode() {
+            String raw = startsAt.toInstant().toString() + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                Instant startsAt = Instant.parse(raw.substring(0, separator));
+                return new Cursor(OffsetDateTime.ofInstant(startsAt, ZoneOffset.UTC),
+                        Long.valueOf(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed cursor");
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ca.gbc.comp3095.eventservice.service;
+
+import ca.gbc.comp3095.eventservice.dto.ResourceDto;
+import ca.gbc.comp3095.eventservice.dto.ResourceLookup;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Bounded local copy of each event's resource list, written on every successful lookup.
+ *
+ * Entries younger than fresh-for are served as they are; older ones are still served
+ * (marked stale) while they are revalidated, and remain the last-known-good answer when
+ * the resource service fails, until they expire after stale-horizon.
+ */
+@Component
+public class EventResourceCache {
+
+    private final Cache<Long, ResourceLookup> entries;
+    private final Duration freshFor;
+
+    public EventResourceCache(MeterRegistry meterRegistry,
+                              @Value("${resource.cache.max-events:10000}") long maxEvents,
+                              @Value("${resource.cache.fresh-for:30s}") Duration freshFor,
+                              @Value("${resource.cache.stale-horizon:1h}") Duration staleHorizon) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEvents)
+                .expireAfterWrite(staleHorizon)
+                .recordStats()
+                .build();
+        this.freshFor = freshFor;
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "eventResources");
+    }
+
+    /** The cached lookup, marked stale if it is past fresh-for; null if there is none. */
+    public ResourceLookup get(Long eventId) {
+        ResourceLookup cached = entries.getIfPresent(eventId);
+        if (cached == null || isFresh(cached)) {
+            return cached;
+        }
+        return new ResourceLookup(cached.getResources(), cached.getFetchedAt(), true);
+    }
+
+    /** Stores a successful lookup and returns it as a fresh result. */
+    public ResourceLookup put(Long eventId, List<ResourceDto> resources) {
+        ResourceLookup lookup = new ResourceLookup(resources, Instant.now(), false);
+        entries.put(eventId, lookup);
+        return lookup;
+    }
+
+    private boolean isFresh(ResourceLookup lookup) {
+        return lookup.getFetchedAt().plus(freshFor).isAfter(Instant.now());
+    }
+}
@@ -0,0 +1,58 @@
+package ca.gbc.comp3095.eventservice.service;
+
+import ca.gbc.comp3095.eventservice.dto.ResourceLookup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stale-while-revalidate access to event resources.
+ *
+ * A fresh cached list is returned without a remote call. A stale one is returned at once
+ * while a single background request per event refreshes it. Only events with no cached
+ * list wait for wellness-resource-service, and if that fails they get the last-known-good
+ * copy or an empty, unavailable result.
+ */
+@Service
+public class EventResourceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventResourceService.class);
+
+    private final ResourceClient resourceClient;
+    private final EventResourceCache cache;
+    // Events with a background refresh in flight, so concurrent stale reads trigger only one
+    private final Set<Long> revalidating = ConcurrentHashMap.newKeySet();
+
+    public EventResourceService(ResourceClient resourceClient, EventResourceCache cache) {
+        this.resourceClient = resourceClient;
+        this.cache = cache;
+    }
+
+    public ResourceLookup resourcesFor(Long eventId) {
+        ResourceLookup cached = cachedOrRevalidate(eventId);
+        return cached != null ? cached : resourceClient.findResourcesForEvent(eventId);
+    }
+
+    /** Non-blocking variant for fan-out; never fails, see {@link ResourceLookup#isAvailable()}. */
+    public Mono<ResourceLookup> resourcesForAsync(Long eventId) {
+        ResourceLookup cached = cachedOrRevalidate(eventId);
+        return cached != null ? Mono.just(cached) : resourceClient.findResourcesForEventAsync(eventId);
+    }
+
+    private ResourceLookup cachedOrRevalidate(final Long eventId) {
+        ResourceLookup cached = cache.get(eventId);
+        if (cached != null && cached.isStale() && revalidating.add(eventId)) {
+            resourceClient.fetchResourcesForEvent(eventId)
+                    .doFinally(signal -> revalidating.remove(eventId))
+                    .subscribe(
+                            refreshed -> logger.debug("Revalidated resources for event {}", eventId),
+                            // The stale copy stays in place until the stale horizon
+                            e -> logger.debug("Revalidating resources for event {} failed: {}", eventId, e.getMessage()));
+        }
+        return cached;
+    }
+}
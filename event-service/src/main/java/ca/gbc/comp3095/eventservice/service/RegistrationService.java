@@ -0,0 +1,63 @@
+package ca.gbc.comp3095.eventservice.service;
+
+import ca.gbc.comp3095.eventservice.model.Event;
+import ca.gbc.comp3095.eventservice.model.Registration;
+import ca.gbc.comp3095.eventservice.repository.EventRepository;
+import ca.gbc.comp3095.eventservice.repository.RegistrationRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Locale;
+
+/**
+ * Capacity-limited registration.
+ *
+ * A seat is taken by one conditional UPDATE on the event's counter, so concurrent sign-ups
+ * never oversell and need no lock beyond that row. The registration is inserted first and the
+ * seat taken last, right before commit: the hot event row stays locked only for the UPDATE
+ * and the commit, and a duplicate email or a full event rolls back both together.
+ */
+@Service
+public class RegistrationService {
+
+    private final EventRepository events;
+    private final RegistrationRepository registrations;
+
+    public RegistrationService(EventRepository events, RegistrationRepository registrations) {
+        this.events = events;
+        this.registrations = registrations;
+    }
+
+    @Transactional
+    public Registration register(Long eventId, String attendeeName, String attendeeEmail) {
+        Event event = events.findById(eventId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Event not found"));
+        // Cheap early answer once sold out; the conditional UPDATE below is what decides
+        if (isFull(event)) {
+            throw full();
+        }
+
+        Registration registration;
+        try {
+            registration = registrations.saveAndFlush(
+                    new Registration(event, attendeeName, attendeeEmail.trim().toLowerCase(Locale.ROOT)));
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Already registered for this event");
+        }
+        if (events.reserveSeat(eventId) == 0) {
+            throw full();
+        }
+        return registration;
+    }
+
+    private static boolean isFull(Event event) {
+        return event.getCapacity() != null && event.getSeatsTaken() >= event.getCapacity();
+    }
+
+    private static ResponseStatusException full() {
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Event is full");
+    }
+}
@@ -1,15 +1,22 @@
 package ca.gbc.comp3095.eventservice.service;
 
 import ca.gbc.comp3095.eventservice.dto.ResourceDto;
+import ca.gbc.comp3095.eventservice.dto.ResourceLookup;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
 
 import java.net.URI;
 import java.util.Collections;
@@ -20,33 +27,77 @@ public class ResourceClient {
 
     private static final Logger logger = LoggerFactory.getLogger(ResourceClient.class);
     private static final String CIRCUIT_BREAKER_NAME = "resourceService";
-    
+    private static final ParameterizedTypeReference<List<ResourceDto>> RESOURCE_LIST =
+            new ParameterizedTypeReference<List<ResourceDto>>() {};
+
     private final RestTemplate restTemplate;
-    private final String baseUrl;
+    private final WebClient webClient;
+    private final EventResourceCache cache;
+    private final io.github.resilience4j.circuitbreaker.CircuitBreaker circuitBreaker;
+    // Parsed once; each call only expands the event id
+    private final UriComponents eventResourcesUri;
 
     public ResourceClient(RestTemplate restTemplate,
+                          WebClient resourceWebClient,
+                          EventResourceCache cache,
+                          CircuitBreakerRegistry circuitBreakerRegistry,
                           @Value("${resource.base-url}") String baseUrl) {
         this.restTemplate = restTemplate;
-        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.webClient = resourceWebClient;
+        this.cache = cache;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER_NAME);
+        this.eventResourcesUri = UriComponentsBuilder.fromUriString(baseUrl)
+                .path("/api/resources")
+                .queryParam("eventId", "{eventId}")
+                .build();
     }
 
+    /** Remote lookup; on failure or an open circuit, the last-known-good copy (marked stale). */
     @CircuitBreaker(name = CIRCUIT_BREAKER_NAME, fallbackMethod = "findResourcesForEventFallback")
-    public List<ResourceDto> findResourcesForEvent(Long eventId) {
-        logger.info("Fetching resources for event: {}", eventId);
-        URI uri = URI.create(baseUrl + "/api/resources?eventId=" + eventId);
-        ResponseEntity<List<ResourceDto>> resp = restTemplate.exchange(
-                RequestEntity.get(uri).build(),
-                new ParameterizedTypeReference<List<ResourceDto>>() {}
-        );
-        return resp.getBody() != null ? resp.getBody() : Collections.emptyList();
+    public ResourceLookup findResourcesForEvent(Long eventId) {
+        logger.debug("Fetching resources for event: {}", eventId);
+        URI uri = eventResourcesUri.expand(eventId).toUri();
+        ResponseEntity<List<ResourceDto>> resp = restTemplate.exchange(RequestEntity.get(uri).build(), RESOURCE_LIST);
+        return cache.put(eventId, resp.getBody() != null ? resp.getBody() : Collections.<ResourceDto>emptyList());
+    }
+
+    /**
+     * Non-blocking variant: no thread waits on the response, so many lookups can be in
+     * flight at once. Shares the circuit breaker and fallback of the blocking call.
+     */
+    public Mono<ResourceLookup> findResourcesForEventAsync(final Long eventId) {
+        return fetchResourcesForEvent(eventId)
+                .onErrorResume(e -> Mono.just(findResourcesForEventFallback(eventId, e)));
     }
 
     /**
-     * Fallback method when circuit breaker is open or service fails.
+     * Like {@link #findResourcesForEventAsync} but without the fallback, for callers that
+     * handle a failed lookup themselves. Successful lookups are cached either way.
      */
-    private List<ResourceDto> findResourcesForEventFallback(Long eventId, Exception e) {
+    public Mono<ResourceLookup> fetchResourcesForEvent(final Long eventId) {
+        return webClient.get()
+                .uri(eventResourcesUri.expand(eventId).toUri())
+                .retrieve()
+                .bodyToMono(RESOURCE_LIST)
+                .defaultIfEmpty(Collections.<ResourceDto>emptyList())
+                .transform(CircuitBreakerOperator.<List<ResourceDto>>of(circuitBreaker))
+                .map(resources -> cache.put(eventId, resources));
+    }
+
+    /**
+     * Fallback method when circuit breaker is open or service fails: the cached copy, however
+     * old (up to the stale horizon), rather than an empty list.
+     */
+    private ResourceLookup findResourcesForEventFallback(Long eventId, Throwable e) {
         logger.warn("Circuit breaker fallback triggered for event: {}. Error: {}", eventId, e.getMessage());
-        // Return empty list as fallback - could also return cached data
-        return Collections.emptyList();
+        return lastKnownGood(eventId);
+    }
+
+    public ResourceLookup lastKnownGood(Long eventId) {
+        ResourceLookup cached = cache.get(eventId);
+        if (cached == null) {
+            return ResourceLookup.unavailable();
+        }
+        return new ResourceLookup(cached.getResources(), cached.getFetchedAt(), true);
     }
 }
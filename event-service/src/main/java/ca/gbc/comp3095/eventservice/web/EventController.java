@@ -1,77 +1,109 @@
 package ca.gbc.comp3095.eventservice.web;
 
+import ca.gbc.comp3095.eventservice.dto.EventPage;
 import ca.gbc.comp3095.eventservice.dto.EventWithResourcesDto;
-import ca.gbc.comp3095.eventservice.dto.ResourceDto;
+import ca.gbc.comp3095.eventservice.dto.ResourceLookup;
 import ca.gbc.comp3095.eventservice.model.Event;
 import ca.gbc.comp3095.eventservice.model.Registration;
 import ca.gbc.comp3095.eventservice.repository.EventRepository;
 import ca.gbc.comp3095.eventservice.repository.RegistrationRepository;
-import ca.gbc.comp3095.eventservice.service.ResourceClient;
+import ca.gbc.comp3095.eventservice.service.EventListingService;
+import ca.gbc.comp3095.eventservice.service.EventResourceService;
+import ca.gbc.comp3095.eventservice.service.RegistrationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.util.StringUtils; // at top
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/events")
 @Tag(name = "Events", description = "API for managing wellness events and registrations")
 public class EventController {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
     private final EventRepository events;
     private final RegistrationRepository registrations;
-    private final ResourceClient resourceClient;
+    private final EventResourceService resourceService;
+    private final EventListingService listingService;
+    private final RegistrationService registrationService;
+    private final int maxBatchEvents;
+    private final int batchConcurrency;
 
     public EventController(EventRepository events,
                            RegistrationRepository registrations,
-                           ResourceClient resourceClient) {
+                           EventResourceService resourceService,
+                           EventListingService listingService,
+                           RegistrationService registrationService,
+                           @Value("${resource.batch.max-events:100}") int maxBatchEvents,
+                           @Value("${resource.batch.concurrency:16}") int batchConcurrency) {
         this.events = events;
         this.registrations = registrations;
-        this.resourceClient = resourceClient;
+        this.resourceService = resourceService;
+        this.listingService = listingService;
+        this.registrationService = registrationService;
+        this.maxBatchEvents = maxBatchEvents;
+        this.batchConcurrency = batchConcurrency;
     }
 
-    // GET /events with optional filters: start, end, location
-    @Operation(summary = "Get all events", description = "Retrieve all events, optionally filtered by date range and location")
+    // GET /events?size=&cursor=&sort= with optional filters start, end, location -> one keyset
+    // page of summaries; without ?size= the page holds DEFAULT_PAGE_SIZE events, so no call
+    // reads the whole table
+    @Operation(summary = "Get a page of events", description = "Event summaries ordered by startsAt then id (sort=startsAt,asc|startsAt,desc), optionally filtered by date range and location; 20 per page by default, at most 100; pass nextCursor back as cursor for the next page")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved events"),
-        @ApiResponse(responseCode = "400", description = "Invalid date parameters")
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved page"),
+        @ApiResponse(responseCode = "400", description = "Invalid date parameters, sort or cursor")
     })
-    @GetMapping
-    public List<Event> getAll(
+    @GetMapping(params = "size")
+    public EventPage getPage(
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort,
             @RequestParam(required = false) OffsetDateTime start,
             @RequestParam(required = false) OffsetDateTime end,
             @RequestParam(required = false) String location) {
+        requireDateRangePair(start, end);
+        return listingService.page(start, end, location, sort, cursor, size);
+    }
 
+    @GetMapping(params = "!size")
+    public EventPage getDefaultPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) OffsetDateTime start,
+            @RequestParam(required = false) OffsetDateTime end,
+            @RequestParam(required = false) String location) {
+        requireDateRangePair(start, end);
+        return listingService.page(start, end, location, sort, cursor, DEFAULT_PAGE_SIZE);
+    }
+
+    private static void requireDateRangePair(OffsetDateTime start, OffsetDateTime end) {
         if ((start == null) != (end == null)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                     "Provide both 'start' and 'end' or neither.");
         }
-
-        boolean hasDates = (start != null && end != null);
-        boolean hasLoc   = StringUtils.hasText(location); // null-safe, trims whitespace
-
-        if (hasDates && hasLoc) {
-            return events.findByStartsAtBetweenAndLocationContainingIgnoreCase(start, end, location);
-        }
-        if (hasDates) {
-            return events.findByStartsAtBetween(start, end);
-        }
-        if (hasLoc) {
-            return events.findByLocationContainingIgnoreCase(location);
-        }
-        return events.findAll();
     }
 
     // POST /events
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public Event create(@RequestBody Event newEvent) {
+        requireValidCapacity(newEvent.getCapacity());
         return events.save(newEvent);
     }
 
@@ -88,6 +120,16 @@ public class EventController {
         Event existing = events.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Event not found"));
 
+        // Capacity first, so a rejected change leaves the rest of the event untouched. The save
+        // below never writes the column, so it cannot undo this either.
+        if (incoming.getCapacity() != null) {
+            requireValidCapacity(incoming.getCapacity());
+            if (events.updateCapacity(id, incoming.getCapacity()) == 0) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Capacity is below the seats already taken");
+            }
+            existing.setCapacity(incoming.getCapacity());
+        }
         if (incoming.getTitle() != null) existing.setTitle(incoming.getTitle());
         if (incoming.getStartsAt() != null) existing.setStartsAt(incoming.getStartsAt());
         if (incoming.getLocation() != null) existing.setLocation(incoming.getLocation());
@@ -95,6 +137,12 @@ public class EventController {
         return events.save(existing);
     }
 
+    private static void requireValidCapacity(Integer capacity) {
+        if (capacity != null && capacity < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Capacity must not be negative");
+        }
+    }
+
     // DELETE /events/{id}
     @DeleteMapping({"/{id}", "/{id}/"})
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -107,18 +155,21 @@ public class EventController {
 
     // --- Registration endpoints ---
 
-    // POST /events/{id}/registrations
+    // POST /events/{id}/registrations -> 409 when the event is full or the email is already registered
+    @Operation(summary = "Register for an event", description = "Takes a seat if the event has capacity left; one registration per email (case-insensitive)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Registered"),
+        @ApiResponse(responseCode = "400", description = "Name or email missing"),
+        @ApiResponse(responseCode = "404", description = "Event not found"),
+        @ApiResponse(responseCode = "409", description = "Event is full, or the email is already registered")
+    })
     @PostMapping("/{id}/registrations")
     @ResponseStatus(HttpStatus.CREATED)
     public Registration register(@PathVariable Long id, @RequestBody Registration payload) {
-        Event event = events.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Event not found"));
-
-        if (payload.getAttendeeName() == null || payload.getAttendeeEmail() == null) {
+        if (payload.getAttendeeName() == null || !StringUtils.hasText(payload.getAttendeeEmail())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Name and email are required");
         }
-        Registration reg = new Registration(event, payload.getAttendeeName(), payload.getAttendeeEmail());
-        return registrations.save(reg);
+        return registrationService.register(id, payload.getAttendeeName(), payload.getAttendeeEmail());
     }
 
     // GET /events/{id}/registrations
@@ -130,14 +181,65 @@ public class EventController {
         return registrations.findByEvent_Id(id);
     }
 
-    // --- Resource linking endpoint ---
+    // --- Resource linking endpoints ---
+
+    // GET /events/resources?ids=1,2,3 or ?start=&end= -> each event with its resources.
+    // Events come from one query; resource lookups run concurrently without holding a
+    // thread each. Failed lookups fall back to the last-known-good copy (marked stale) and
+    // are otherwise reported on their event instead of failing the page.
+    @Operation(summary = "Get resources for many events", description = "Events by ids or by date range (up to 100), each with its resources or an error")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Events with their resources; failed lookups carry an error"),
+        @ApiResponse(responseCode = "400", description = "Neither ids nor start/end given, or more than 100 ids")
+    })
+    @GetMapping("/resources")
+    public Mono<List<EventWithResourcesDto>> resourcesForEvents(
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) OffsetDateTime start,
+            @RequestParam(required = false) OffsetDateTime end) {
+        List<Event> found;
+        if (ids != null && !ids.isEmpty()) {
+            if (ids.size() > maxBatchEvents) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "At most " + maxBatchEvents + " ids per request");
+            }
+            found = inRequestedOrder(ids, events.findAllById(ids));
+        } else if (start != null && end != null) {
+            found = events.findByStartsAtBetweenOrderByStartsAtAscIdAsc(start, end, Limit.of(maxBatchEvents));
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Provide 'ids' or both 'start' and 'end'.");
+        }
+
+        return Flux.fromIterable(found)
+                .flatMapSequential(event -> resourceService.resourcesForAsync(event.getId())
+                        .map(lookup -> lookup.isAvailable()
+                                ? EventWithResourcesDto.of(event, lookup)
+                                : EventWithResourcesDto.failed(event, "Resources unavailable")), batchConcurrency)
+                .collectList();
+    }
+
+    // Unknown ids are left out
+    private static List<Event> inRequestedOrder(List<Long> ids, List<Event> found) {
+        Map<Long, Event> byId = new HashMap<Long, Event>();
+        for (Event event : found) {
+            byId.put(event.getId(), event);
+        }
+        List<Event> ordered = new ArrayList<Event>(found.size());
+        for (Long id : ids) {
+            Event event = byId.remove(id);
+            if (event != null) {
+                ordered.add(event);
+            }
+        }
+        return ordered;
+    }
 
     // GET /events/{id}/resources  -> event + resources from external service
     @GetMapping("/{id}/resources")
     public EventWithResourcesDto resources(@PathVariable Long id) {
         Event event = events.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Event not found"));
-        List<ResourceDto> resources = resourceClient.findResourcesForEvent(id);
-        return new EventWithResourcesDto(event, resources);
+        ResourceLookup lookup = resourceService.resourcesFor(id);
+        return EventWithResourcesDto.of(event, lookup);
     }
 }
@@ -0,0 +1,38 @@
+-- Runs after Hibernate's ddl-auto (spring.jpa.defer-datasource-initialization=true),
+-- so every statement here must be idempotent.
+
+-- Trigram index backs substring search on location (ILIKE '%q%'); pg_trgm trigrams are
+-- case-folded, so the one index serves case-insensitive matches
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_events_location_trgm
+    ON events USING gin (location gin_trgm_ops);
+
+-- One registration per event and attendee email. Emails are stored lower-cased; the index is
+-- on lower() so rows written before that are covered too. Registrations from before the
+-- index may repeat an email in another case, which would fail the index build and abort
+-- startup: keep the earliest of each and move the rest to registrations_removed_duplicates.
+-- This runs only while the index is missing; once it exists the guard is a one-time filter
+-- and the self-join is never executed. (Plain SQL rather than a DO $$ block, which Spring's
+-- script splitter would cut at the first semicolon inside it.)
+CREATE TABLE IF NOT EXISTS registrations_removed_duplicates (LIKE registrations);
+WITH removed AS (
+    DELETE FROM registrations r
+        USING registrations earlier
+        WHERE NOT EXISTS (SELECT 1 FROM pg_indexes WHERE indexname = 'uq_registrations_event_email')
+          AND earlier.event_id = r.event_id
+          AND lower(earlier.attendee_email) = lower(r.attendee_email)
+          AND earlier.id < r.id
+        RETURNING r.id, r.event_id, r.attendee_name, r.attendee_email, r.created_at
+)
+INSERT INTO registrations_removed_duplicates (id, event_id, attendee_name, attendee_email, created_at)
+    SELECT id, event_id, attendee_name, attendee_email, created_at FROM removed;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_registrations_event_email
+    ON registrations (event_id, lower(attendee_email));
+
+-- seats_taken was added after events already had registrations and starts at 0; count those
+-- once, or a capacity set later could be oversold by them. Every registration since takes a
+-- seat, so an event still at 0 has none and re-running this changes nothing.
+UPDATE events e
+    SET seats_taken = (SELECT count(*) FROM registrations r WHERE r.event_id = e.id)
+    WHERE e.seats_taken = 0
+      AND EXISTS (SELECT 1 FROM registrations r WHERE r.event_id = e.id);
@@ -0,0 +1,34 @@
+package ca.gbc.comp3095.eventservice;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Remembers every SQL statement Hibernate prepares, unchanged, so a test can EXPLAIN the
+ * query a repository method really runs instead of a hand-written copy of it. Registered
+ * through spring.jpa.properties.hibernate.session_factory.statement_inspector.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<String>();
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    static void clear() {
+        statements.clear();
+    }
+
+    /** The last statement prepared since {@link #clear()}. */
+    static String last() {
+        if (statements.isEmpty()) {
+            throw new IllegalStateException("No statement captured");
+        }
+        return statements.get(statements.size() - 1);
+    }
+}
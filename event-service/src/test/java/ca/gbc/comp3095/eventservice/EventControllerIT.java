@@ -1,21 +1,37 @@
 package ca.gbc.comp3095.eventservice;
 
+import ca.gbc.comp3095.eventservice.dto.EventPage;
 import ca.gbc.comp3095.eventservice.model.Event;
 import ca.gbc.comp3095.eventservice.repository.EventRepository;
+import ca.gbc.comp3095.eventservice.repository.RegistrationRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.github.tomakehurst.wiremock.WireMockServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import javax.sql.DataSource;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 
@@ -42,6 +58,9 @@ class EventControllerIT {
         wiremock.start();
         configureFor("localhost", 9099);
         r.add("resource.base-url", () -> "http://localhost:9099");
+        // Cached lists are stale as soon as they are stored, so repeat reads show the
+        // served-stale path without waiting out the freshness window
+        r.add("resource.cache.fresh-for", () -> "0s");
     }
 
     @AfterAll
@@ -56,6 +75,16 @@ class EventControllerIT {
 
     @Autowired TestRestTemplate rest;
     @Autowired EventRepository events;
+    @Autowired RegistrationRepository registrations;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired DataSource dataSource;
+    @Autowired CircuitBreakerRegistry circuitBreakers;
+
+    @BeforeEach
+    void closeCircuit() {
+        // Failed lookups in one test must not leave the breaker open for the next
+        circuitBreakers.circuitBreaker("resourceService").reset();
+    }
 
     @Test
     void crud_and_resources_and_registration_flow() {
@@ -70,7 +99,7 @@ class EventControllerIT {
                 "[{\"id\":101,\"name\":\"Water Station\",\"type\":\"facility\",\"info\":\"near start\"}," +
                         " {\"id\":102,\"name\":\"Physio\",\"type\":\"service\",\"info\":\"finish line\"}]";
 
-        wiremock.stubFor(get(urlPathEqualTo("/resources"))
+        wiremock.stubFor(get(urlPathEqualTo("/api/resources"))
                 .withQueryParam("eventId", equalTo(String.valueOf(e.getId())))
                 .willReturn(okJson(stubJson)));
 
@@ -98,4 +127,235 @@ class EventControllerIT {
         Assertions.assertEquals(HttpStatus.OK, listRes.getStatusCode());
         Assertions.assertTrue(listRes.getBody().contains("alice@example.com"));
     }
+
+    @Test
+    void batch_resources_report_failed_lookups_per_event() {
+        Event ok = new Event("Yoga");
+        ok.setLocation("Hamilton");
+        ok = events.save(ok);
+        Event broken = new Event("Spin");
+        broken.setLocation("Oshawa");
+        broken = events.save(broken);
+
+        wiremock.stubFor(get(urlPathEqualTo("/api/resources"))
+                .withQueryParam("eventId", equalTo(String.valueOf(ok.getId())))
+                .willReturn(okJson("[{\"id\":201,\"title\":\"Mat Rental\",\"category\":\"facility\"}]")));
+        wiremock.stubFor(get(urlPathEqualTo("/api/resources"))
+                .withQueryParam("eventId", equalTo(String.valueOf(broken.getId())))
+                .willReturn(serverError()));
+
+        ResponseEntity<String> res = rest.getForEntity(
+                "http://localhost:" + port + "/events/resources?ids=" + broken.getId() + "," + ok.getId() + ",999999",
+                String.class);
+
+        Assertions.assertEquals(HttpStatus.OK, res.getStatusCode());
+        String body = res.getBody();
+        // Requested order, unknown id left out, the failed lookup reported on its own event
+        Assertions.assertTrue(body.indexOf("Spin") < body.indexOf("Yoga"));
+        Assertions.assertTrue(body.contains("Mat Rental"));
+        Assertions.assertEquals(1, body.split("Resources unavailable", -1).length - 1);
+    }
+
+    @Test
+    void cached_resources_are_served_stale_when_the_resource_service_fails() {
+        Event e = new Event("Trail Run");
+        e.setLocation("Guelph");
+        e = events.save(e);
+        String single = "http://localhost:" + port + "/events/" + e.getId() + "/resources";
+        String batch = "http://localhost:" + port + "/events/resources?ids=" + e.getId();
+
+        // Warm the local copy
+        wiremock.stubFor(get(urlPathEqualTo("/api/resources"))
+                .withQueryParam("eventId", equalTo(String.valueOf(e.getId())))
+                .willReturn(okJson("[{\"id\":301,\"title\":\"Trail Map\",\"category\":\"facility\"}]")));
+        JsonNode warm = rest.getForObject(single, JsonNode.class);
+        Assertions.assertFalse(warm.get("stale").asBoolean());
+        String fetchedAt = warm.get("resourcesFetchedAt").asText();
+
+        // From now on every lookup fails (the newest stub wins)
+        wiremock.stubFor(get(urlPathEqualTo("/api/resources"))
+                .withQueryParam("eventId", equalTo(String.valueOf(e.getId())))
+                .willReturn(serverError()));
+
+        JsonNode one = rest.getForObject(single, JsonNode.class);
+        JsonNode many = rest.getForObject(batch, JsonNode.class).get(0);
+        for (JsonNode served : Arrays.asList(one, many)) {
+            // The last-known-good list, marked stale, with the time it was actually fetched
+            Assertions.assertTrue(served.get("stale").asBoolean(), served.toString());
+            Assertions.assertEquals(fetchedAt, served.get("resourcesFetchedAt").asText(), served.toString());
+            Assertions.assertEquals("Trail Map", served.get("resources").get(0).get("title").asText());
+            Assertions.assertFalse(served.has("error"), served.toString());
+        }
+    }
+
+    @Test
+    void paged_listing_walks_filtered_events_in_keyset_order() {
+        // Same start time for two events, so the id breaks the tie
+        String[][] rows = {
+                {"Walk A", "2026-03-01T09:00:00Z"}, {"Walk B", "2026-03-02T09:00:00Z"},
+                {"Walk C", "2026-03-02T09:00:00Z"}, {"Walk D", "2026-03-03T09:00:00Z"},
+                {"Walk E", "2026-03-04T09:00:00Z"}};
+        for (String[] row : rows) {
+            Event e = new Event(row[0]);
+            e.setStartsAt(OffsetDateTime.parse(row[1]));
+            e.setLocation("Keyset Park");
+            events.save(e);
+        }
+        String base = "http://localhost:" + port + "/events?location=keyset%20park&size=2";
+
+        List<String> ascending = new ArrayList<String>();
+        String next = null;
+        int pages = 0;
+        do {
+            ResponseEntity<EventPage> res = rest.getForEntity(
+                    base + (next != null ? "&cursor=" + next : ""), EventPage.class);
+            Assertions.assertEquals(HttpStatus.OK, res.getStatusCode());
+            for (int i = 0; i < res.getBody().getItems().size(); i++) {
+                ascending.add(res.getBody().getItems().get(i).getTitle());
+            }
+            next = res.getBody().getNextCursor();
+            pages++;
+        } while (next != null);
+        Assertions.assertEquals(3, pages);
+        Assertions.assertEquals(Arrays.asList("Walk A", "Walk B", "Walk C", "Walk D", "Walk E"), ascending);
+
+        EventPage descending = rest.getForObject(base + "&sort=startsAt,desc", EventPage.class);
+        Assertions.assertEquals("Walk E", descending.getItems().get(0).getTitle());
+        Assertions.assertEquals("Walk D", descending.getItems().get(1).getTitle());
+        EventPage after = rest.getForObject(base + "&sort=startsAt,desc&cursor=" + descending.getNextCursor(),
+                EventPage.class);
+        Assertions.assertEquals("Walk C", after.getItems().get(0).getTitle());
+
+        // Page size is capped, and a cursor that was never issued is rejected
+        EventPage capped = rest.getForObject(
+                "http://localhost:" + port + "/events?size=100000", EventPage.class);
+        Assertions.assertTrue(capped.getItems().size() <= 100);
+        EventPage unsized = rest.getForObject(
+                "http://localhost:" + port + "/events?location=keyset%20park", EventPage.class);
+        Assertions.assertEquals(5, unsized.getItems().size());
+        Assertions.assertNull(unsized.getNextCursor());
+        Assertions.assertTrue(rest.getForObject(
+                "http://localhost:" + port + "/events", EventPage.class).getItems().size() <= 20);
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST,
+                rest.getForEntity(base + "&cursor=not-a-cursor", String.class).getStatusCode());
+    }
+
+    @Test
+    void concurrent_registrations_never_oversell() throws Exception {
+        Event e = new Event("Flash Sale Bootcamp");
+        e.setCapacity(50);
+        final Event event = events.save(e);
+        final String url = "http://localhost:" + port + "/events/" + event.getId() + "/registrations";
+        final HttpHeaders h = new HttpHeaders();
+        h.setContentType(MediaType.APPLICATION_JSON);
+
+        // 200 sign-ups released at once for 50 seats
+        int attempts = 200;
+        final CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        List<Future<HttpStatusCode>> results = new ArrayList<Future<HttpStatusCode>>();
+        try {
+            for (int i = 0; i < attempts; i++) {
+                final String payload = "{\"attendeeName\":\"Runner " + i + "\",\"attendeeEmail\":\"runner" + i + "@example.com\"}";
+                results.add(pool.submit(new Callable<HttpStatusCode>() {
+                    @Override
+                    public HttpStatusCode call() throws Exception {
+                        go.await();
+                        return rest.postForEntity(url, new HttpEntity<>(payload, h), String.class).getStatusCode();
+                    }
+                }));
+            }
+            go.countDown();
+            int created = 0;
+            int conflicts = 0;
+            for (Future<HttpStatusCode> result : results) {
+                HttpStatusCode status = result.get();
+                if (HttpStatus.CREATED.equals(status)) created++;
+                else if (HttpStatus.CONFLICT.equals(status)) conflicts++;
+            }
+            Assertions.assertEquals(50, created);
+            Assertions.assertEquals(attempts - 50, conflicts);
+        } finally {
+            pool.shutdownNow();
+        }
+        Assertions.assertEquals(50, events.findById(event.getId()).get().getSeatsTaken());
+        Assertions.assertEquals(50, registrations.findByEvent_Id(event.getId()).size());
+    }
+
+    @Test
+    void duplicate_email_is_rejected_case_insensitively() {
+        Event e = new Event("Sunrise Yoga");
+        e.setCapacity(10);
+        e = events.save(e);
+        String url = "http://localhost:" + port + "/events/" + e.getId() + "/registrations";
+        HttpHeaders h = new HttpHeaders();
+        h.setContentType(MediaType.APPLICATION_JSON);
+
+        ResponseEntity<String> first = rest.postForEntity(url,
+                new HttpEntity<>("{\"attendeeName\":\"Bo\",\"attendeeEmail\":\"Bo@Example.com\"}", h), String.class);
+        ResponseEntity<String> again = rest.postForEntity(url,
+                new HttpEntity<>("{\"attendeeName\":\"Bo\",\"attendeeEmail\":\" bo@example.COM\"}", h), String.class);
+
+        Assertions.assertEquals(HttpStatus.CREATED, first.getStatusCode());
+        Assertions.assertTrue(first.getBody().contains("bo@example.com"));
+        Assertions.assertEquals(HttpStatus.CONFLICT, again.getStatusCode());
+        // The rejected attempt took no seat
+        Assertions.assertEquals(1, events.findById(e.getId()).get().getSeatsTaken());
+    }
+
+    @Test
+    void capacity_cannot_drop_below_seats_taken() {
+        Event e = new Event("Trail Run");
+        e.setCapacity(10);
+        e = events.save(e);
+        HttpHeaders h = new HttpHeaders();
+        h.setContentType(MediaType.APPLICATION_JSON);
+        for (int i = 0; i < 3; i++) {
+            rest.postForEntity("http://localhost:" + port + "/events/" + e.getId() + "/registrations",
+                    new HttpEntity<>("{\"attendeeName\":\"R\",\"attendeeEmail\":\"r" + i + "@example.com\"}", h),
+                    String.class);
+        }
+        String url = "http://localhost:" + port + "/events/" + e.getId();
+
+        ResponseEntity<String> tooLow = rest.exchange(url, HttpMethod.PUT,
+                new HttpEntity<>("{\"title\":\"Renamed\",\"capacity\":2}", h), String.class);
+        ResponseEntity<Event> exact = rest.exchange(url, HttpMethod.PUT,
+                new HttpEntity<>("{\"capacity\":3}", h), Event.class);
+
+        // The rejected update changed nothing, the title included
+        Assertions.assertEquals(HttpStatus.CONFLICT, tooLow.getStatusCode());
+        Assertions.assertEquals(HttpStatus.OK, exact.getStatusCode());
+        Assertions.assertEquals(Integer.valueOf(3), exact.getBody().getCapacity());
+        Event stored = events.findById(e.getId()).get();
+        Assertions.assertEquals("Trail Run", stored.getTitle());
+        Assertions.assertEquals(Integer.valueOf(3), stored.getCapacity());
+        Assertions.assertEquals(3, stored.getSeatsTaken());
+    }
+
+    @Test
+    void schema_script_counts_and_dedupes_registrations_from_before_capacity() {
+        Event e = events.save(new Event("Legacy Meetup"));
+        // Rows as written before seats and the unique index existed
+        jdbc.execute("DROP INDEX uq_registrations_event_email");
+        String insert = "INSERT INTO registrations (event_id, attendee_name, attendee_email, created_at) VALUES (?, ?, ?, now())";
+        jdbc.update(insert, e.getId(), "Ann", "Ann@Example.com");
+        jdbc.update(insert, e.getId(), "Ann", "ann@example.com");
+        jdbc.update(insert, e.getId(), "Ben", "ben@example.com");
+
+        // Twice: the script must be idempotent
+        ResourceDatabasePopulator schema = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        schema.execute(dataSource);
+        schema.execute(dataSource);
+
+        List<String> emails = jdbc.queryForList(
+                "SELECT attendee_email FROM registrations WHERE event_id = ? ORDER BY id", String.class, e.getId());
+        Assertions.assertEquals(Arrays.asList("Ann@Example.com", "ben@example.com"), emails);
+        // The dropped duplicate is kept aside rather than lost
+        Assertions.assertEquals(Arrays.asList("ann@example.com"), jdbc.queryForList(
+                "SELECT attendee_email FROM registrations_removed_duplicates WHERE event_id = ?",
+                String.class, e.getId()));
+        Assertions.assertEquals(2, events.findById(e.getId()).get().getSeatsTaken());
+        Assertions.assertEquals(Integer.valueOf(1), jdbc.queryForObject(
+                "SELECT count(*) FROM pg_indexes WHERE indexname = 'uq_registrations_event_email'", Integer.class));
+    }
 }
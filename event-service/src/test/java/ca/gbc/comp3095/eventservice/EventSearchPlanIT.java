@@ -0,0 +1,206 @@
+package ca.gbc.comp3095.eventservice;
+
+import ca.gbc.comp3095.eventservice.dto.EventPage;
+import ca.gbc.comp3095.eventservice.dto.EventSummary;
+import ca.gbc.comp3095.eventservice.repository.EventRepository;
+import ca.gbc.comp3095.eventservice.service.EventListingService;
+import org.junit.jupiter.api.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
+
+/**
+ * Query plans and latency of the event listing paths at 1M events: location substring
+ * search must use the trigram index, date ranges and keyset pages the (starts_at, id)
+ * index, and none of them may scan the table. Plans are taken of the SQL Hibernate
+ * generates (see {@link CapturingStatementInspector}). Latencies are logged; the asserted bounds
+ * are loose since they depend on the machine. Seeding a million rows is slow, so this
+ * only runs with the benchmark profile (mvn test -Pbenchmark).
+ */
+@Tag("benchmark")
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EventSearchPlanIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventSearchPlanIT.class);
+    private static final int EVENTS = 1_000_000;
+    private static final long MAX_MEDIAN_MILLIS = 100;
+    // Explicit bounds around the seeded events, so the test knows every bound value
+    private static final OffsetDateTime FROM = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+    private static final OffsetDateTime TO = OffsetDateTime.parse("2028-12-31T00:00:00Z");
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("eventdb")
+            .withUsername("event_user")
+            .withPassword("password");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry r) {
+        r.add("spring.datasource.url", pg::getJdbcUrl);
+        r.add("spring.datasource.username", pg::getUsername);
+        r.add("spring.datasource.password", pg::getPassword);
+        r.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                CapturingStatementInspector.class::getName);
+    }
+
+    @Autowired JdbcTemplate jdbc;
+    @Autowired EventRepository events;
+    @Autowired EventListingService listing;
+
+    @BeforeAll
+    void seed() {
+        // One event a minute from 2026-01-01, each at its own hall
+        jdbc.update("INSERT INTO events (title, starts_at, location) "
+                + "SELECT 'Event ' || i, timestamptz '2026-01-01 00:00:00+00' + i * interval '1 minute', 'Hall ' || i "
+                + "FROM generate_series(1, " + EVENTS + ") AS i");
+        jdbc.execute("VACUUM ANALYZE events");
+    }
+
+    @Test
+    void location_page_uses_trigram_index() {
+        CapturingStatementInspector.clear();
+        EventPage found = listing.page(FROM, TO, "HALL 123456", null, null, 100);
+        String plan = explainCaptured(false,
+                FROM, TO, EventRepository.containsPattern("HALL 123456"), FROM, FROM, 0L, 101);
+
+        Assertions.assertTrue(plan.contains("idx_events_location_trgm"), plan);
+        Assertions.assertFalse(plan.contains("Seq Scan"), plan);
+
+        Assertions.assertEquals(1, found.getItems().size());
+        assertFast("location page", () -> listing.page(FROM, TO, "123456", null, null, 100));
+    }
+
+    @Test
+    void date_range_uses_starts_at_index() {
+        final OffsetDateTime start = OffsetDateTime.parse("2026-06-01T00:00:00Z");
+        final OffsetDateTime end = OffsetDateTime.parse("2026-06-02T00:00:00Z");
+
+        CapturingStatementInspector.clear();
+        Assertions.assertEquals(1441, events.findByStartsAtBetween(start, end).size());
+        String plan = explainCaptured(false, start, end);
+        CapturingStatementInspector.clear();
+        EventPage page = listing.page(start, end, null, null, null, 100);
+        String unfiltered = explainCaptured(false, start, end, start, start, 0L, 101);
+        CapturingStatementInspector.clear();
+        listing.page(start, end, "2345", null, null, 100);
+        String combined = explainCaptured(false,
+                start, end, EventRepository.containsPattern("2345"), start, start, 0L, 101);
+
+        Assertions.assertTrue(plan.contains("idx_events_starts_at_id"), plan);
+        Assertions.assertFalse(plan.contains("Seq Scan"), plan);
+        // Without a location the page query carries no location condition at all
+        Assertions.assertTrue(unfiltered.contains("idx_events_starts_at_id"), unfiltered);
+        Assertions.assertFalse(unfiltered.contains("~~*"), unfiltered);
+        Assertions.assertFalse(combined.contains("Seq Scan"), combined);
+
+        Assertions.assertEquals(100, page.getItems().size());
+        assertFast("date range", () -> events.findByStartsAtBetween(start, end));
+        assertFast("date range page with location", () -> listing.page(start, end, "2345", null, null, 100));
+    }
+
+    @Test
+    void deep_keyset_page_starts_at_the_cursor() {
+        EventPage first = listing.page(null, null, null, null, null, 100);
+        Assertions.assertEquals(100, first.getItems().size());
+        Assertions.assertNotNull(first.getNextCursor());
+
+        // A cursor 900k rows in: the scan must start at the cursor rather than filter out
+        // every earlier row
+        final EventPage deep = listing.page(OffsetDateTime.parse("2027-09-18T00:00:00Z"), TO, null, null, null, 100);
+        Assertions.assertEquals(100, deep.getItems().size());
+        EventSummary last = deep.getItems().get(99);
+        CapturingStatementInspector.clear();
+        listing.page(FROM, TO, null, null, deep.getNextCursor(), 100);
+        String plan = explainCaptured(true, FROM, TO, last.getStartsAt(), last.getStartsAt(), last.getId(), 101);
+
+        Assertions.assertTrue(plan.contains("idx_events_starts_at_id"), plan);
+        Assertions.assertFalse(Pattern.compile("Rows Removed by Filter: \\d{3,}").matcher(plan).find(), plan);
+
+        assertFast("keyset page", () -> listing.page(null, null, null, null, deep.getNextCursor(), 100));
+        assertFast("keyset page with location", () -> listing.page(null, null, "hall 99", null, null, 100));
+    }
+
+    // Plans the last statement Hibernate prepared, exactly as generated, with the given values
+    // bound to its placeholders in order (the row limit is the last one). PREPARE and EXECUTE
+    // need one connection; a freshly prepared statement is planned for the values it gets.
+    private String explainCaptured(final boolean analyze, Object... values) {
+        String sql = CapturingStatementInspector.last();
+        StringBuilder numbered = new StringBuilder();
+        int placeholders = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?') {
+                numbered.append('$').append(++placeholders);
+            } else {
+                numbered.append(c);
+            }
+        }
+        Assertions.assertEquals(values.length, placeholders, sql);
+        StringBuilder args = new StringBuilder();
+        for (Object value : values) {
+            args.append(args.length() == 0 ? "" : ", ")
+                    .append('\'').append(String.valueOf(value).replace("'", "''")).append('\'');
+        }
+        final String prepare = "PREPARE captured AS " + numbered;
+        final String explain = "EXPLAIN " + (analyze ? "ANALYZE " : "") + "EXECUTE captured(" + args + ")";
+        return jdbc.execute(new ConnectionCallback<String>() {
+            @Override
+            public String doInConnection(Connection con) throws SQLException {
+                try (Statement st = con.createStatement()) {
+                    st.execute(prepare);
+                    try (ResultSet rs = st.executeQuery(explain)) {
+                        List<String> lines = new ArrayList<String>();
+                        while (rs.next()) {
+                            lines.add(rs.getString(1));
+                        }
+                        return String.join("\n", lines);
+                    } finally {
+                        st.execute("DEALLOCATE captured");
+                    }
+                }
+            }
+        });
+    }
+
+    private static void assertFast(String label, Callable<Object> query) {
+        long[] millis = new long[21];
+        try {
+            for (int i = 0; i < 5; i++) {
+                query.call();
+            }
+            for (int i = 0; i < millis.length; i++) {
+                long start = System.nanoTime();
+                query.call();
+                millis[i] = (System.nanoTime() - start) / 1_000_000;
+            }
+        } catch (Exception e) {
+            throw new AssertionError(label + " failed", e);
+        }
+        Arrays.sort(millis);
+        long median = millis[millis.length / 2];
+        long max = millis[millis.length - 1];
+        logger.info("{} median {} ms, max {} ms", label, median, max);
+        Assertions.assertTrue(median < MAX_MEDIAN_MILLIS, label + " median " + median + " ms, max " + max + " ms");
+    }
+}
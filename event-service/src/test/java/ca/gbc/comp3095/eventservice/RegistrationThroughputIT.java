@@ -0,0 +1,105 @@
+package ca.gbc.comp3095.eventservice;
+
+import ca.gbc.comp3095.eventservice.model.Event;
+import ca.gbc.comp3095.eventservice.repository.EventRepository;
+import ca.gbc.comp3095.eventservice.repository.RegistrationRepository;
+import ca.gbc.comp3095.eventservice.service.RegistrationService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Sign-ups per second for one hot event: every registration takes its seat with the
+ * conditional UPDATE on the same events row, so this is the rate that row lock allows.
+ * The rate is logged; the asserted floor is loose since it depends on the machine. Only
+ * runs with the benchmark profile (mvn test -Pbenchmark).
+ */
+@Tag("benchmark")
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class RegistrationThroughputIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistrationThroughputIT.class);
+    private static final int WARMUP = 500;
+    private static final int REGISTRATIONS = 10_000;
+    private static final int THREADS = 32;
+    private static final double MIN_PER_SECOND = 1000;
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("eventdb")
+            .withUsername("event_user")
+            .withPassword("password");
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry r) {
+        r.add("spring.datasource.url", pg::getJdbcUrl);
+        r.add("spring.datasource.username", pg::getUsername);
+        r.add("spring.datasource.password", pg::getPassword);
+    }
+
+    @Autowired EventRepository events;
+    @Autowired RegistrationRepository registrations;
+    @Autowired RegistrationService registrationService;
+
+    @Test
+    void hot_event_takes_thousands_of_registrations_per_second() throws Exception {
+        Event e = new Event("Hot Event");
+        e.setCapacity(WARMUP + REGISTRATIONS);
+        Long eventId = events.save(e).getId();
+
+        register(eventId, "warmup", WARMUP);
+        long started = System.nanoTime();
+        register(eventId, "runner", REGISTRATIONS);
+        double seconds = (System.nanoTime() - started) / 1e9;
+        double perSecond = REGISTRATIONS / seconds;
+        logger.info("{} registrations for one event from {} threads in {} ms: {} per second",
+                REGISTRATIONS, THREADS, Math.round(seconds * 1000), Math.round(perSecond));
+
+        Assertions.assertEquals(WARMUP + REGISTRATIONS, events.findById(eventId).get().getSeatsTaken());
+        Assertions.assertEquals(WARMUP + REGISTRATIONS, registrations.findByEvent_Id(eventId).size());
+        Assertions.assertTrue(perSecond >= MIN_PER_SECOND, Math.round(perSecond) + " registrations per second");
+    }
+
+    // Released at once from THREADS threads; fails if any sign-up is rejected
+    private void register(final Long eventId, final String prefix, int count) throws Exception {
+        final CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<Long>> results = new ArrayList<Future<Long>>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                final String email = prefix + i + "@example.com";
+                results.add(pool.submit(new Callable<Long>() {
+                    @Override
+                    public Long call() throws Exception {
+                        go.await();
+                        return registrationService.register(eventId, "Attendee", email).getId();
+                    }
+                }));
+            }
+            go.countDown();
+            for (Future<Long> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package ca.gbc.comp3095.eventservice.service;
+
+import ca.gbc.comp3095.eventservice.dto.ResourceDto;
+import ca.gbc.comp3095.eventservice.dto.ResourceLookup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the stale-while-revalidate behaviour of EventResourceService.
+ */
+@ExtendWith(MockitoExtension.class)
+class EventResourceServiceTest {
+
+    @Mock
+    private ResourceClient resourceClient;
+
+    private List<ResourceDto> resources;
+
+    @BeforeEach
+    void setUp() {
+        resources = Collections.singletonList(new ResourceDto(1L, "Water Station", "near start", "facility", null));
+    }
+
+    @Test
+    void shouldServeFreshCopyWithoutRemoteCall() {
+        // GIVEN
+        EventResourceCache cache = cache(Duration.ofMinutes(1));
+        cache.put(7L, resources);
+        EventResourceService service = new EventResourceService(resourceClient, cache);
+
+        // WHEN
+        ResourceLookup lookup = service.resourcesFor(7L);
+
+        // THEN
+        assertFalse(lookup.isStale());
+        assertEquals(resources, lookup.getResources());
+        verifyNoInteractions(resourceClient);
+    }
+
+    @Test
+    void shouldServeStaleCopyAndRevalidateOnceInBackground() {
+        // GIVEN: an expired-freshness entry and a refresh that is still in flight
+        EventResourceCache cache = cache(Duration.ZERO);
+        cache.put(7L, resources);
+        when(resourceClient.fetchResourcesForEvent(7L)).thenReturn(Mono.<ResourceLookup>never());
+        EventResourceService service = new EventResourceService(resourceClient, cache);
+
+        // WHEN
+        ResourceLookup first = service.resourcesFor(7L);
+        ResourceLookup second = service.resourcesFor(7L);
+
+        // THEN
+        assertTrue(first.isStale());
+        assertEquals(resources, second.getResources());
+        verify(resourceClient, times(1)).fetchResourcesForEvent(7L);
+        verify(resourceClient, never()).findResourcesForEvent(7L);
+    }
+
+    @Test
+    void shouldCallServiceOnMiss() {
+        // GIVEN
+        EventResourceCache cache = cache(Duration.ofMinutes(1));
+        when(resourceClient.findResourcesForEvent(7L)).thenReturn(ResourceLookup.unavailable());
+        EventResourceService service = new EventResourceService(resourceClient, cache);
+
+        // WHEN
+        ResourceLookup lookup = service.resourcesFor(7L);
+
+        // THEN
+        assertFalse(lookup.isAvailable());
+        assertTrue(lookup.getResources().isEmpty());
+    }
+
+    private static EventResourceCache cache(Duration freshFor) {
+        return new EventResourceCache(new SimpleMeterRegistry(), 100, freshFor, Duration.ofHours(1));
+    }
+}
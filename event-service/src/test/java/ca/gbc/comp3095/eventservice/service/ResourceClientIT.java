@@ -0,0 +1,129 @@
+package ca.gbc.comp3095.eventservice.service;
+
+import ca.gbc.comp3095.eventservice.dto.ResourceLookup;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * ResourceClient against a WireMock wellness-resource-service: the response timeout cuts
+ * slow calls short and hands them to the fallback, and both HTTP client pools export
+ * their meters.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class ResourceClientIT {
+
+    private static final long RESPONSE_TIMEOUT_MILLIS = 300;
+    private static final int SLOW_RESPONSE_MILLIS = 3000;
+
+    @Container
+    static PostgreSQLContainer<?> pg = new PostgreSQLContainer<>("postgres:16")
+            .withDatabaseName("eventdb")
+            .withUsername("event_user")
+            .withPassword("password");
+
+    static WireMockServer wiremock;
+
+    @DynamicPropertySource
+    static void props(DynamicPropertyRegistry r) {
+        r.add("spring.datasource.url", pg::getJdbcUrl);
+        r.add("spring.datasource.username", pg::getUsername);
+        r.add("spring.datasource.password", pg::getPassword);
+
+        wiremock = new WireMockServer(options().dynamicPort());
+        wiremock.start();
+        r.add("resource.base-url", () -> "http://localhost:" + wiremock.port());
+        r.add("resource.http.response-timeout", () -> RESPONSE_TIMEOUT_MILLIS + "ms");
+    }
+
+    @AfterAll
+    static void stopWiremock() {
+        if (wiremock != null && wiremock.isRunning()) {
+            wiremock.stop();
+            wiremock = null;
+        }
+    }
+
+    @Autowired ResourceClient resourceClient;
+    @Autowired MeterRegistry meterRegistry;
+    @Autowired CircuitBreakerRegistry circuitBreakers;
+
+    @BeforeEach
+    void resetStubs() {
+        wiremock.resetAll();
+        circuitBreakers.circuitBreaker("resourceService").reset();
+    }
+
+    @Test
+    void slow_async_lookup_times_out_to_the_last_known_good_copy() {
+        wiremock.stubFor(get(urlPathEqualTo("/api/resources"))
+                .withQueryParam("eventId", equalTo("41"))
+                .willReturn(okJson("[{\"id\":1,\"title\":\"Water Station\",\"category\":\"facility\"}]")));
+        ResourceLookup warm = resourceClient.findResourcesForEventAsync(41L).block(Duration.ofSeconds(5));
+        Assertions.assertFalse(warm.isStale());
+
+        wiremock.stubFor(get(urlPathEqualTo("/api/resources"))
+                .withQueryParam("eventId", equalTo("41"))
+                .willReturn(okJson("[]").withFixedDelay(SLOW_RESPONSE_MILLIS)));
+        long started = System.nanoTime();
+        ResourceLookup lookup = resourceClient.findResourcesForEventAsync(41L).block(Duration.ofSeconds(10));
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        // Cut off at the response timeout, not when the slow response would have arrived
+        Assertions.assertTrue(elapsedMillis < SLOW_RESPONSE_MILLIS, "took " + elapsedMillis + " ms");
+        Assertions.assertTrue(lookup.isStale());
+        Assertions.assertEquals(warm.getFetchedAt(), lookup.getFetchedAt());
+        Assertions.assertEquals("Water Station", lookup.getResources().get(0).getTitle());
+    }
+
+    @Test
+    void slow_async_lookup_without_a_cached_copy_is_unavailable() {
+        wiremock.stubFor(get(urlPathEqualTo("/api/resources"))
+                .withQueryParam("eventId", equalTo("42"))
+                .willReturn(okJson("[]").withFixedDelay(SLOW_RESPONSE_MILLIS)));
+
+        ResourceLookup lookup = resourceClient.findResourcesForEventAsync(42L).block(Duration.ofSeconds(10));
+
+        Assertions.assertFalse(lookup.isAvailable());
+        Assertions.assertTrue(lookup.getResources().isEmpty());
+    }
+
+    @Test
+    void both_connection_pools_export_meters() {
+        wiremock.stubFor(get(urlPathEqualTo("/api/resources")).willReturn(okJson("[]")));
+
+        // One call through each client, so the reactive pool has been created
+        resourceClient.findResourcesForEvent(43L);
+        resourceClient.findResourcesForEventAsync(44L).block(Duration.ofSeconds(5));
+
+        Assertions.assertTrue(hasMeterStartingWith("httpcomponents.httpclient.pool."));
+        Assertions.assertTrue(hasMeterStartingWith("reactor.netty.connection.provider."));
+    }
+
+    private boolean hasMeterStartingWith(String prefix) {
+        for (Meter meter : meterRegistry.getMeters()) {
+            if (meter.getId().getName().startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,45 @@
+#!/usr/bin/env bash
+# Concurrency sweep against one endpoint, to compare platform vs virtual threads.
+#
+# Run it once per mode against the same data, e.g.:
+#   docker compose up -d                                          # platform threads
+#   MODE=platform bash scripts/load-test.sh
+#   SPRING_PROFILES_ACTIVE=virtual-threads docker compose up -d wellness-resource-service event-service
+#   MODE=virtual bash scripts/load-test.sh
+#
+# Requires `hey` (https://github.com/rakyll/hey). Set TOKEN to a Keycloak access token
+# when going through the gateway.
+set -euo pipefail
+
+TARGET_URL="${TARGET_URL:-http://localhost:8092/api/resources/category/mindfulness}"
+MODE="${MODE:-unknown}"
+DURATION="${DURATION:-30s}"
+CONCURRENCY_LEVELS="${CONCURRENCY_LEVELS:-50 200 800 2000}"
+OUT_DIR="${OUT_DIR:-load-test-results}"
+
+command -v hey >/dev/null || { echo "hey is required (go install github.com/rakyll/hey@latest)"; exit 1; }
+mkdir -p "${OUT_DIR}"
+
+AUTH=()
+if [[ -n "${TOKEN:-}" ]]; then
+  AUTH=(-H "Authorization: Bearer ${TOKEN}")
+fi
+
+# Markdown rows for the README's results table, next to the full hey reports
+summary="${OUT_DIR}/${MODE}-summary.md"
+printf "| mode | concurrency | req/s | p50 (s) | p99 (s) | non-2xx |\n|---|---|---|---|---|---|\n" > "${summary}"
+
+echo "== ${MODE}: ${TARGET_URL} for ${DURATION} per level =="
+printf "%-12s %12s %10s %10s %10s %8s\n" "concurrency" "req/s" "p50(s)" "p99(s)" "slowest" "non-2xx"
+for c in ${CONCURRENCY_LEVELS}; do
+  report="${OUT_DIR}/${MODE}-c${c}.txt"
+  hey -z "${DURATION}" -c "${c}" ${AUTH[@]+"${AUTH[@]}"} "${TARGET_URL}" > "${report}"
+  rps=$(awk '/Requests\/sec/ {print $2}' "${report}")
+  p50=$(awk '/ 50% in/ {print $3}' "${report}")
+  p99=$(awk '/ 99% in/ {print $3}' "${report}")
+  slowest=$(awk '/Slowest:/ {print $2}' "${report}")
+  non2xx=$(awk '/\[[3-5][0-9][0-9]\]/ {n += $2} END {print n + 0}' "${report}")
+  printf "%-12s %12s %10s %10s %10s %8s\n" "${c}" "${rps}" "${p50}" "${p99}" "${slowest}" "${non2xx}"
+  printf "| %s | %s | %s | %s | %s | %s |\n" "${MODE}" "${c}" "${rps}" "${p50}" "${p99}" "${non2xx}" >> "${summary}"
+done
+echo "Full reports in ${OUT_DIR}/, table rows in ${summary}"
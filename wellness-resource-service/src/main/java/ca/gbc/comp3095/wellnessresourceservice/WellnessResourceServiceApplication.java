@@ -2,8 +2,10 @@ package ca.gbc.comp3095.wellnessresourceservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling // Access stats flushing and cache refresh-ahead
 public class WellnessResourceServiceApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,51 @@
+package ca.gbc.comp3095.wellnessresourceservice.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Applies invalidations published by other replicas to the local L1 tier only.
+ * The shared Redis tier has already been updated by the publishing replica.
+ */
+public class CacheInvalidationListener implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+    private final TwoTierCacheManager cacheManager;
+    private final String instanceId;
+
+    public CacheInvalidationListener(TwoTierCacheManager cacheManager, String instanceId) {
+        this.cacheManager = cacheManager;
+        this.instanceId = instanceId;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        // Key is last so it may itself contain the separator
+        String[] parts = body.split("\\|", 4);
+        if (parts.length != 4) {
+            logger.warn("Ignoring malformed cache invalidation message: {}", body);
+            return;
+        }
+        if (instanceId.equals(parts[0])) {
+            return;
+        }
+
+        TwoTierCache cache = cacheManager.getLocalCache(parts[2]);
+        if (cache == null) {
+            return;
+        }
+        if (CacheInvalidationPublisher.OP_CLEAR.equals(parts[1])) {
+            cache.clearLocal();
+        } else {
+            for (String key : parts[3].split(CacheInvalidationPublisher.KEY_SEPARATOR)) {
+                cache.evictLocal(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ca.gbc.comp3095.wellnessresourceservice.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.UUID;
+
+/**
+ * Broadcasts L1 invalidations to the other replicas over a Redis pub/sub channel.
+ *
+ * Message format: {@code <instanceId>|<op>|<cacheName>|<key>} where op is EVICT or CLEAR.
+ * A bulk EVICT carries several keys separated by newlines.
+ * The instance id lets each replica ignore the messages it published itself.
+ */
+public class CacheInvalidationPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationPublisher.class);
+
+    static final String OP_EVICT = "EVICT";
+    static final String OP_CLEAR = "CLEAR";
+    static final String KEY_SEPARATOR = "\n";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public CacheInvalidationPublisher(StringRedisTemplate redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public void publishEvict(String cacheName, String key) {
+        publish(OP_EVICT, cacheName, key);
+    }
+
+    public void publishClear(String cacheName) {
+        publish(OP_CLEAR, cacheName, "");
+    }
+
+    private void publish(String op, String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(channel, instanceId + "|" + op + "|" + cacheName + "|" + key);
+        } catch (Exception e) {
+            // Other replicas fall back to the L1 TTL if a message is lost
+            logger.warn("Failed to publish cache invalidation for {}::{}: {}", cacheName, key, e.getMessage());
+        }
+    }
+}
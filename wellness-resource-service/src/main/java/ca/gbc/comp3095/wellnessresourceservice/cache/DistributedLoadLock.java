@@ -0,0 +1,53 @@
+package ca.gbc.comp3095.wellnessresourceservice.cache;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Short-lived Redis lock (SET NX PX) that lets one replica load a missing cache entry
+ * while the others wait for it to appear in Redis. The lease bounds how long a crashed
+ * holder can block anyone, and release only deletes the lock if we still own it.
+ */
+public class DistributedLoadLock {
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration leaseTime;
+    private final Duration maxWait;
+    private final Duration pollInterval;
+
+    public DistributedLoadLock(StringRedisTemplate redisTemplate, Duration leaseTime,
+                               Duration maxWait, Duration pollInterval) {
+        this.redisTemplate = redisTemplate;
+        this.leaseTime = leaseTime;
+        this.maxWait = maxWait;
+        this.pollInterval = pollInterval;
+    }
+
+    /** Returns an ownership token, or null if another replica holds the lock. */
+    public String tryAcquire(String lockKey) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(lockKey, token, leaseTime);
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    public void release(String lockKey, String token) {
+        redisTemplate.execute(RELEASE, List.of(lockKey), token);
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+}
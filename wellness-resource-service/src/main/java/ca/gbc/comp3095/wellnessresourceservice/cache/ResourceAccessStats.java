@@ -0,0 +1,97 @@
+package ca.gbc.comp3095.wellnessresourceservice.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recent access counts of the resource lists, shared by all replicas.
+ *
+ * Reads are counted locally and flushed periodically into an hourly Redis sorted set
+ * (one pipelined ZINCRBY per key), so counting costs no round trip on the read path.
+ * "Hottest" combines the current and previous hour, which keeps the ranking recent
+ * without a decay job; buckets expire on their own.
+ */
+@Component
+public class ResourceAccessStats {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceAccessStats.class);
+
+    private static final String KEY_PREFIX = "wellness:resources:hot:";
+    private static final Duration BUCKET = Duration.ofHours(1);
+    private static final Duration BUCKET_RETENTION = Duration.ofHours(3);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ConcurrentMap<String, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public ResourceAccessStats(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public void record(String listKey) {
+        pending.computeIfAbsent(listKey, k -> new LongAdder()).increment();
+    }
+
+    @Scheduled(fixedDelayString = "${wellness.cache.stats.flush-interval:30s}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, Long> counts = new HashMap<>();
+        pending.forEach((key, adder) -> {
+            long count = adder.sumThenReset();
+            if (count > 0) {
+                counts.put(key, count);
+            }
+        });
+        // Drop idle keys; a racing record() simply recreates its adder
+        pending.entrySet().removeIf(e -> e.getValue().sum() == 0);
+        if (counts.isEmpty()) {
+            return;
+        }
+
+        String bucketKey = bucketKey(0);
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                counts.forEach((key, count) -> stringConnection.zIncrBy(bucketKey, count, key));
+                stringConnection.expire(bucketKey, BUCKET_RETENTION.toSeconds());
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // Stats are best-effort: losing one interval only skews the ranking slightly
+            logger.warn("Could not flush resource access stats: {}", e.getMessage());
+        }
+    }
+
+    /** The most accessed list keys over roughly the last one to two hours, hottest first. */
+    public List<String> hottest(int limit) {
+        return redisTemplate.opsForZSet()
+                .unionWithScores(bucketKey(0), List.of(bucketKey(1)))
+                .stream()
+                .sorted(Comparator.comparing((TypedTuple<String> t) -> Objects.requireNonNullElse(t.getScore(), 0.0))
+                        .reversed())
+                .limit(limit)
+                .map(TypedTuple::getValue)
+                .toList();
+    }
+
+    private static String bucketKey(int hoursAgo) {
+        return KEY_PREFIX + (System.currentTimeMillis() / BUCKET.toMillis() - hoursAgo);
+    }
+}
@@ -0,0 +1,202 @@
+package ca.gbc.comp3095.wellnessresourceservice.cache;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Redis value serializer for the resources cache.
+ *
+ * Values are written with a small header so the encoding can change without flushing Redis:
+ * <pre>
+ *   'W' 'C' | format version | encoding | flags | [class name length (2) | class name] | payload
+ * </pre>
+ * Encodings are JDK serialization, Smile (binary JSON, typed by the class name in the header)
+ * and a payload-less null marker. Flag bit 0 means the payload is gzipped, which is only done
+ * above a size threshold and only when it actually saves space.
+ *
+ * Entries written before the header existed are plain JDK streams (they start with 0xACED)
+ * and are still read. Headers with an unknown format version decode to null, which RedisCache
+ * treats as a miss, so a replica never fails on entries written by a newer one.
+ *
+ * Encoded sizes are recorded in {@code wellness.cache.payload.size}, tagged by encoding
+ * and whether the payload was compressed.
+ */
+public class ResourceCacheCodec implements RedisSerializer<Object> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceCacheCodec.class);
+
+    public enum Format { JDK, SMILE }
+
+    static final byte MAGIC_0 = 'W';
+    static final byte MAGIC_1 = 'C';
+    static final byte FORMAT_VERSION = 1;
+
+    static final byte ENCODING_JDK = 0;
+    static final byte ENCODING_SMILE = 1;
+    static final byte ENCODING_NULL = 2;
+
+    static final byte FLAG_GZIP = 1;
+
+    private static final int HEADER_LENGTH = 5;
+    // Only our own types are decoded from a class name read out of Redis
+    private static final String TRUSTED_PACKAGE = "ca.gbc.comp3095.wellnessresourceservice.";
+
+    private final Format format;
+    private final int compressThreshold;
+    // Cached list bodies are byte arrays; raw binary avoids Smile's 7-bit expansion of them
+    private final ObjectMapper smileMapper = SmileMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .disable(SmileGenerator.Feature.ENCODE_BINARY_AS_7BIT)
+            .build();
+    private final JdkSerializationRedisSerializer jdk = new JdkSerializationRedisSerializer();
+    private final MeterRegistry meterRegistry;
+
+    public ResourceCacheCodec(Format format, int compressThreshold, MeterRegistry meterRegistry) {
+        this.format = format;
+        this.compressThreshold = compressThreshold;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null || value instanceof NullValue) {
+            return header(ENCODING_NULL, (byte) 0, 0).array();
+        }
+        try {
+            if (format == Format.SMILE && isTrusted(value.getClass())) {
+                byte[] className = value.getClass().getName().getBytes(StandardCharsets.UTF_8);
+                byte[] payload = smileMapper.writeValueAsBytes(value);
+                return withHeader(ENCODING_SMILE, className, payload);
+            }
+            return withHeader(ENCODING_JDK, null, jdk.serialize(value));
+        } catch (IOException e) {
+            throw new SerializationException("Could not encode cache value of type " + value.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if ((bytes[0] & 0xFF) == 0xAC && bytes.length > 1 && (bytes[1] & 0xFF) == 0xED) {
+            // Legacy entry from before the codec: raw JDK serialization
+            return jdk.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH || bytes[0] != MAGIC_0 || bytes[1] != MAGIC_1) {
+            throw new SerializationException("Unrecognised cache value encoding");
+        }
+        if (bytes[2] != FORMAT_VERSION) {
+            logger.debug("Treating cache entry with format version {} as a miss", bytes[2]);
+            return null;
+        }
+
+        byte encoding = bytes[3];
+        boolean gzipped = (bytes[4] & FLAG_GZIP) != 0;
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+        try {
+            switch (encoding) {
+                case ENCODING_NULL:
+                    return NullValue.INSTANCE;
+                case ENCODING_JDK:
+                    return jdk.deserialize(payload(buffer, gzipped));
+                case ENCODING_SMILE: {
+                    byte[] name = new byte[buffer.getShort() & 0xFFFF];
+                    buffer.get(name);
+                    Class<?> type = trustedClass(new String(name, StandardCharsets.UTF_8));
+                    return smileMapper.readValue(payload(buffer, gzipped), type);
+                }
+                default:
+                    logger.debug("Treating cache entry with unknown encoding {} as a miss", encoding);
+                    return null;
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new SerializationException("Could not decode cache value", e);
+        }
+    }
+
+    private byte[] withHeader(byte encoding, byte[] className, byte[] payload) throws IOException {
+        byte flags = 0;
+        if (payload.length >= compressThreshold) {
+            byte[] compressed = gzip(payload);
+            if (compressed.length < payload.length) {
+                payload = compressed;
+                flags |= FLAG_GZIP;
+            }
+        }
+        int typeLength = className != null ? 2 + className.length : 0;
+        ByteBuffer buffer = header(encoding, flags, typeLength + payload.length);
+        if (className != null) {
+            buffer.putShort((short) className.length).put(className);
+        }
+        byte[] encoded = buffer.put(payload).array();
+        recordSize(encoding, flags, encoded.length);
+        return encoded;
+    }
+
+    private void recordSize(byte encoding, byte flags, int size) {
+        // Meters are cached by the registry, so the builder lookup is cheap after the first call
+        DistributionSummary.builder("wellness.cache.payload.size")
+                .description("Encoded size of values written to the Redis resources cache")
+                .baseUnit("bytes")
+                .tags("encoding", encoding == ENCODING_SMILE ? "smile" : "jdk",
+                        "compressed", String.valueOf((flags & FLAG_GZIP) != 0))
+                .register(meterRegistry)
+                .record(size);
+    }
+
+    private static ByteBuffer header(byte encoding, byte flags, int bodyLength) {
+        return ByteBuffer.allocate(HEADER_LENGTH + bodyLength)
+                .put(MAGIC_0).put(MAGIC_1).put(FORMAT_VERSION).put(encoding).put(flags);
+    }
+
+    private static byte[] payload(ByteBuffer buffer, boolean gzipped) throws IOException {
+        byte[] payload = new byte[buffer.remaining()];
+        buffer.get(payload);
+        if (!gzipped) {
+            return payload;
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        }
+        return out.toByteArray();
+    }
+
+    private static boolean isTrusted(Class<?> type) {
+        return type.getName().startsWith(TRUSTED_PACKAGE) || type == String.class;
+    }
+
+    private static Class<?> trustedClass(String name) throws ClassNotFoundException {
+        Class<?> type = Class.forName(name, false, ResourceCacheCodec.class.getClassLoader());
+        if (!isTrusted(type)) {
+            throw new ClassNotFoundException("Refusing to decode untrusted type " + name);
+        }
+        return type;
+    }
+}
@@ -0,0 +1,43 @@
+package ca.gbc.comp3095.wellnessresourceservice.cache;
+
+/**
+ * Key layout of the "resources" cache. Lists and single resources share one cache so
+ * a write can update or evict exactly the entries it affects.
+ */
+public final class ResourceCacheKeys {
+
+    public static final String CACHE_NAME = "resources";
+
+    private static final String CATEGORY_PREFIX = "category:";
+    private static final String EVENT_PREFIX = "event:";
+
+    private ResourceCacheKeys() {
+    }
+
+    public static String all() {
+        return "all";
+    }
+
+    public static String category(String category) {
+        return CATEGORY_PREFIX + category;
+    }
+
+    /** The category of a category list key, or null for any other key. */
+    public static String categoryOf(String listKey) {
+        return listKey.startsWith(CATEGORY_PREFIX) ? listKey.substring(CATEGORY_PREFIX.length()) : null;
+    }
+
+    /** Resources linked to an event; a list key like "all" and the categories. */
+    public static String event(Long eventId) {
+        return EVENT_PREFIX + eventId;
+    }
+
+    /** The event id of an event list key, or null for any other key. */
+    public static Long eventOf(String listKey) {
+        return listKey.startsWith(EVENT_PREFIX) ? Long.valueOf(listKey.substring(EVENT_PREFIX.length())) : null;
+    }
+
+    public static String id(Long id) {
+        return "id:" + id;
+    }
+}
@@ -0,0 +1,57 @@
+package ca.gbc.comp3095.wellnessresourceservice.cache;
+
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Monotonic per-list versions ("all", "category:x") shared by all replicas in one Redis
+ * hash, used as strong ETags for the listing endpoints.
+ *
+ * Writers bump a version both before and after evicting the cached list. Readers capture
+ * the version before loading a list and cache it only if the version is unchanged after
+ * the load. The first bump keeps a load that overlapped the write out of the cache; the
+ * second means a list is never labelled with a version newer than its content. An "epoch"
+ * field guards against version numbers being reused if the hash is ever lost.
+ */
+@Component
+public class ResourceVersions {
+
+    private static final String KEY = "wellness:resources:versions";
+    private static final String EPOCH_FIELD = "epoch";
+
+    private final StringRedisTemplate redisTemplate;
+
+    public ResourceVersions(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /** Current version of a list key, formatted as {@code <epoch>-<counter>}. */
+    public String current(String listKey) {
+        HashOperations<String, String, String> hash = redisTemplate.opsForHash();
+        List<String> values = hash.multiGet(KEY, List.of(EPOCH_FIELD, listKey));
+        String epoch = values.get(0);
+        if (epoch == null) {
+            hash.putIfAbsent(KEY, EPOCH_FIELD, String.valueOf(System.currentTimeMillis()));
+            epoch = hash.get(KEY, EPOCH_FIELD);
+        }
+        String counter = values.get(1);
+        return epoch + "-" + (counter != null ? counter : "0");
+    }
+
+    /** Increments the versions of the given list keys in one round trip. */
+    public void bump(Collection<String> listKeys) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (String listKey : listKeys) {
+                stringConnection.hIncrBy(KEY, listKey, 1);
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,438 @@
+package ca.gbc.comp3095.wellnessresourceservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache with an in-process L1 (Caffeine, bounded by size and TTL) in front of the shared
+ * Redis L2. Reads are served from L1 when possible; writes go to both tiers and are
+ * broadcast so other replicas drop their L1 copy of the key.
+ *
+ * L1 keys use the same String form RedisCache uses for its keys, so a key evicted by
+ * another replica can be matched locally.
+ *
+ * Misses through {@link #get(Object, Callable)} are single-flighted: concurrent callers
+ * for the same key on this replica share one load. With a {@link DistributedLoadLock},
+ * replicas that lose the lock wait briefly for the winner's value to reach Redis.
+ */
+public class TwoTierCache implements Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TwoTierCache.class);
+    private static final String LOCK_PREFIX = "wellness:cache:lock:";
+    // Loads slower than this are always logged, regardless of sampling
+    private static final long SLOW_LOAD_MILLIS = 1000;
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> l1;
+    private final Cache l2;
+    private final StringRedisTemplate redisTemplate;
+    private final CacheInvalidationPublisher publisher;
+    private final DistributedLoadLock loadLock;
+    private final double loadLogSampleRate;
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>();
+    private final Counter executedLoads;
+    private final Counter coalescedLoads;
+    private final Counter remoteCoalescedLoads;
+    private final Timer successfulLoadTimer;
+    private final Timer failedLoadTimer;
+
+    private final LongAdder l1Hits = new LongAdder();
+    private final LongAdder l1Misses = new LongAdder();
+    private final LongAdder l2Hits = new LongAdder();
+    private final LongAdder l2Misses = new LongAdder();
+
+    public TwoTierCache(String name,
+                        com.github.benmanes.caffeine.cache.Cache<String, Object> l1,
+                        Cache l2,
+                        StringRedisTemplate redisTemplate,
+                        CacheInvalidationPublisher publisher,
+                        DistributedLoadLock loadLock,
+                        MeterRegistry meterRegistry,
+                        double loadLogSampleRate) {
+        this.name = name;
+        this.l1 = l1;
+        this.l2 = l2;
+        this.redisTemplate = redisTemplate;
+        this.publisher = publisher;
+        this.loadLock = loadLock;
+        this.loadLogSampleRate = loadLogSampleRate;
+        this.successfulLoadTimer = loadTimer(meterRegistry, "success");
+        this.failedLoadTimer = loadTimer(meterRegistry, "failure");
+        this.executedLoads = loadCounter(meterRegistry, "executed");
+        this.coalescedLoads = loadCounter(meterRegistry, "coalesced");
+        this.remoteCoalescedLoads = loadCounter(meterRegistry, "coalesced_remote");
+        registerMetrics(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l2.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object local = l1.getIfPresent(localKey);
+        if (local != null) {
+            l1Hits.increment();
+            return new SimpleValueWrapper(fromStoreValue(local));
+        }
+        l1Misses.increment();
+
+        ValueWrapper remote = l2.get(key);
+        if (remote != null) {
+            l2Hits.increment();
+            l1.put(localKey, toStoreValue(remote.get()));
+        } else {
+            l2Misses.increment();
+        }
+        return remote;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+
+        String localKey = localKey(key);
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = inFlightLoads.putIfAbsent(localKey, load);
+        if (inFlight != null) {
+            coalescedLoads.increment();
+            try {
+                return (T) inFlight.join();
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+
+        try {
+            Object value = loadOnce(key, localKey, valueLoader);
+            load.complete(value);
+            return (T) value;
+        } catch (Exception e) {
+            load.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlightLoads.remove(localKey, load);
+        }
+    }
+
+    /**
+     * Loads and stores a missing value. With a distributed lock, only the lock holder
+     * runs the loader; others poll Redis for its result and load themselves only if it
+     * does not show up within the wait budget.
+     */
+    private Object loadOnce(Object key, String localKey, Callable<?> valueLoader) throws Exception {
+        String lockKey = LOCK_PREFIX + name + ":" + localKey;
+        String token = null;
+        if (loadLock != null) {
+            try {
+                token = loadLock.tryAcquire(lockKey);
+                if (token == null) {
+                    ValueWrapper remote = awaitRemoteLoad(key);
+                    if (remote != null) {
+                        remoteCoalescedLoads.increment();
+                        l1.put(localKey, toStoreValue(remote.get()));
+                        return remote.get();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw e;
+            } catch (RuntimeException e) {
+                logger.warn("Load lock unavailable for {}::{}, loading without it: {}", name, localKey, e.getMessage());
+            }
+        }
+
+        executedLoads.increment();
+        long started = System.nanoTime();
+        try {
+            Object value = valueLoader.call();
+            recordLoad(localKey, started, successfulLoadTimer, null);
+            put(key, value);
+            return value;
+        } catch (Exception e) {
+            recordLoad(localKey, started, failedLoadTimer, e);
+            throw e;
+        } finally {
+            if (token != null) {
+                loadLock.release(lockKey, token);
+            }
+        }
+    }
+
+    private void recordLoad(String localKey, long startedNanos, Timer timer, Exception failure) {
+        long nanos = System.nanoTime() - startedNanos;
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (failure != null) {
+            logger.warn("cache_load cache={} key={} outcome=failure duration_ms={} error=\"{}\"",
+                    name, localKey, millis, failure.getMessage());
+        } else if (millis >= SLOW_LOAD_MILLIS || ThreadLocalRandom.current().nextDouble() < loadLogSampleRate) {
+            logger.info("cache_load cache={} key={} outcome=success duration_ms={} sampled={}",
+                    name, localKey, millis, millis < SLOW_LOAD_MILLIS);
+        }
+    }
+
+    private ValueWrapper awaitRemoteLoad(Object key) throws InterruptedException {
+        long deadline = System.nanoTime() + loadLock.getMaxWait().toNanos();
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(loadLock.getPollInterval().toMillis());
+            ValueWrapper remote = l2.get(key);
+            if (remote != null) {
+                return remote;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        l2.put(key, value);
+        String localKey = localKey(key);
+        l1.put(localKey, toStoreValue(value));
+        publisher.publishEvict(name, localKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        l2.evict(key);
+        String localKey = localKey(key);
+        l1.invalidate(localKey);
+        publisher.publishEvict(name, localKey);
+    }
+
+    /**
+     * Looks up many keys: L1 first, then one Redis MGET for the rest. The result holds
+     * only the keys found; a key cached as null maps to null.
+     */
+    public Map<String, Object> getAll(Collection<String> keys) {
+        Map<String, Object> found = new HashMap<>();
+        List<String> remoteKeys = new ArrayList<>();
+        for (String key : keys) {
+            Object local = l1.getIfPresent(key);
+            if (local != null) {
+                l1Hits.increment();
+                found.put(key, fromStoreValue(local));
+            } else {
+                l1Misses.increment();
+                remoteKeys.add(key);
+            }
+        }
+        if (remoteKeys.isEmpty()) {
+            return found;
+        }
+
+        if (!(l2 instanceof RedisCache redisCache)) {
+            for (String key : remoteKeys) {
+                ValueWrapper remote = get(key);
+                if (remote != null) {
+                    found.put(key, remote.get());
+                }
+            }
+            return found;
+        }
+
+        RedisCacheConfiguration config = redisCache.getCacheConfiguration();
+        String prefix = config.getKeyPrefixFor(name);
+        byte[][] redisKeys = remoteKeys.stream()
+                .map(k -> (prefix + k).getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+        List<byte[]> values = redisTemplate.execute(
+                (RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(redisKeys));
+        for (int i = 0; i < remoteKeys.size(); i++) {
+            byte[] bytes = values != null ? values.get(i) : null;
+            Object stored = bytes != null ? config.getValueSerializationPair().read(ByteBuffer.wrap(bytes)) : null;
+            if (stored == null) {
+                l2Misses.increment();
+                continue;
+            }
+            l2Hits.increment();
+            String key = remoteKeys.get(i);
+            l1.put(key, stored);
+            found.put(key, fromStoreValue(stored));
+        }
+        return found;
+    }
+
+    /**
+     * Writes many entries with one pipelined round trip to Redis and a single
+     * invalidation message. Null values are cached as null markers.
+     */
+    public void putAll(Map<String, Object> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (l2 instanceof RedisCache redisCache) {
+            RedisCacheConfiguration config = redisCache.getCacheConfiguration();
+            String prefix = config.getKeyPrefixFor(name);
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                entries.forEach((key, value) -> {
+                    Object stored = toStoreValue(value);
+                    Duration ttl = config.getTtlFunction().getTimeToLive(key, value);
+                    Expiration expiration = ttl.isZero() || ttl.isNegative()
+                            ? Expiration.persistent() : Expiration.from(ttl);
+                    connection.stringCommands().set((prefix + key).getBytes(StandardCharsets.UTF_8),
+                            bytes(config.getValueSerializationPair().write(stored)), expiration, SetOption.upsert());
+                });
+                return null;
+            });
+        } else {
+            entries.forEach(l2::put);
+        }
+        entries.forEach((key, value) -> l1.put(key, toStoreValue(value)));
+        publisher.publishEvict(name, String.join(CacheInvalidationPublisher.KEY_SEPARATOR, entries.keySet()));
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Evicts many keys with a single Redis DEL and a single invalidation message, for
+     * bulk writes that would otherwise cost one round trip and one broadcast per row.
+     */
+    public void evictAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (l2 instanceof RedisCache redisCache) {
+            String prefix = redisCache.getCacheConfiguration().getKeyPrefixFor(name);
+            List<String> redisKeys = keys.stream().map(k -> prefix + k).toList();
+            redisTemplate.delete(redisKeys);
+        } else {
+            keys.forEach(l2::evict);
+        }
+        l1.invalidateAll(keys);
+        publisher.publishEvict(name, String.join(CacheInvalidationPublisher.KEY_SEPARATOR, keys));
+    }
+
+    @Override
+    public void clear() {
+        l2.clear();
+        l1.invalidateAll();
+        publisher.publishClear(name);
+    }
+
+    /** Drops a key from L1 only; used when another replica reports a change. */
+    void evictLocal(String localKey) {
+        l1.invalidate(localKey);
+    }
+
+    /** Drops all of L1 only; used when another replica reports a clear. */
+    void clearLocal() {
+        l1.invalidateAll();
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private static Object toStoreValue(Object value) {
+        return value != null ? value : NullValue.INSTANCE;
+    }
+
+    private static Object fromStoreValue(Object value) {
+        return value == NullValue.INSTANCE ? null : value;
+    }
+
+    private void registerMetrics(MeterRegistry registry) {
+        counter(registry, "l1", "hit", l1Hits);
+        counter(registry, "l1", "miss", l1Misses);
+        counter(registry, "l2", "hit", l2Hits);
+        counter(registry, "l2", "miss", l2Misses);
+
+        Gauge.builder("wellness.cache.hit.ratio", this, c -> ratio(c.l1Hits, c.l1Misses))
+                .description("Fraction of lookups served by the in-process tier")
+                .tags("cache", name, "tier", "l1")
+                .register(registry);
+        // L2 ratio is relative to the lookups that reached Redis, i.e. L1 misses
+        Gauge.builder("wellness.cache.hit.ratio", this, c -> ratio(c.l2Hits, c.l2Misses))
+                .description("Fraction of L1 misses served by Redis")
+                .tags("cache", name, "tier", "l2")
+                .register(registry);
+        Gauge.builder("wellness.cache.l1.size", l1, com.github.benmanes.caffeine.cache.Cache::estimatedSize)
+                .tags("cache", name)
+                .register(registry);
+    }
+
+    private Timer loadTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("wellness.cache.load")
+                .description("Time spent running cache loaders on a miss")
+                .tags("cache", name, "outcome", outcome)
+                .register(registry);
+    }
+
+    private Counter loadCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("wellness.cache.loads")
+                .description("Cache miss loads, by whether the loader ran or the caller shared another load")
+                .tags("cache", name, "outcome", outcome)
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String tier, String result, LongAdder adder) {
+        FunctionCounter.builder("wellness.cache.gets", adder, LongAdder::sum)
+                .tags("cache", name, "tier", tier, "result", result)
+                .register(registry);
+    }
+
+    private static double ratio(LongAdder hits, LongAdder misses) {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+}
@@ -0,0 +1,77 @@
+package ca.gbc.comp3095.wellnessresourceservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * CacheManager that decorates every cache of the Redis CacheManager with a local L1 tier.
+ * The load lock is optional (null disables cross-replica coalescing).
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    private final CacheManager l2CacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final CacheInvalidationPublisher publisher;
+    private final DistributedLoadLock loadLock;
+    private final MeterRegistry meterRegistry;
+    private final long l1MaximumSize;
+    private final Duration l1Ttl;
+    private final double loadLogSampleRate;
+
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager l2CacheManager,
+                               StringRedisTemplate redisTemplate,
+                               CacheInvalidationPublisher publisher,
+                               DistributedLoadLock loadLock,
+                               MeterRegistry meterRegistry,
+                               long l1MaximumSize,
+                               Duration l1Ttl,
+                               double loadLogSampleRate) {
+        this.l2CacheManager = l2CacheManager;
+        this.redisTemplate = redisTemplate;
+        this.publisher = publisher;
+        this.loadLock = loadLock;
+        this.meterRegistry = meterRegistry;
+        this.l1MaximumSize = l1MaximumSize;
+        this.l1Ttl = l1Ttl;
+        this.loadLogSampleRate = loadLogSampleRate;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoTierCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache l2 = l2CacheManager.getCache(name);
+        if (l2 == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> new TwoTierCache(n,
+                Caffeine.newBuilder()
+                        .maximumSize(l1MaximumSize)
+                        .expireAfterWrite(l1Ttl)
+                        .build(),
+                l2, redisTemplate, publisher, loadLock, meterRegistry, loadLogSampleRate));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    /** Returns an already-created cache without creating one; remote invalidations never need a new cache. */
+    TwoTierCache getLocalCache(String name) {
+        return caches.get(name);
+    }
+}
@@ -0,0 +1,46 @@
+package ca.gbc.comp3095.wellnessresourceservice.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread override that sends read-only transactions to the primary instead of the
+ * read replica. Used for reads that must see the latest writes: everything during a
+ * mutating request or shortly after a client's own write (see {@link ReadYourWritesFilter}),
+ * and cache loads, which would otherwise cache replica lag for the whole entry TTL.
+ *
+ * A no-op when no replica is configured.
+ */
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private DataSourceRouting() {
+    }
+
+    public static boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(PRIMARY_ONLY.get());
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = forcePrimary();
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    static Boolean forcePrimary() {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        return previous;
+    }
+
+    static void restore(Boolean previous) {
+        if (previous == null) {
+            PRIMARY_ONLY.remove();
+        } else {
+            PRIMARY_ONLY.set(previous);
+        }
+    }
+}
@@ -1,10 +1,31 @@
 package ca.gbc.comp3095.wellnessresourceservice.config;
 
+import ca.gbc.comp3095.wellnessresourceservice.cache.CacheInvalidationListener;
+import ca.gbc.comp3095.wellnessresourceservice.cache.CacheInvalidationPublisher;
+import ca.gbc.comp3095.wellnessresourceservice.cache.DistributedLoadLock;
+import ca.gbc.comp3095.wellnessresourceservice.cache.ResourceCacheCodec;
+import ca.gbc.comp3095.wellnessresourceservice.cache.ResourceCacheKeys;
+import ca.gbc.comp3095.wellnessresourceservice.cache.TwoTierCacheManager;
+import ca.gbc.comp3095.wellnessresourceservice.dto.ResourceListBody;
+import ca.gbc.comp3095.wellnessresourceservice.service.ResourceChangeStream;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.NullValue;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+
+import java.time.Duration;
 
 @Configuration
 @EnableCaching // REQUIRED: Enables Spring's annotation-driven caching
@@ -22,4 +43,90 @@ public class RedisConfig {
         // template.setDefaultSerializer(new GenericJackson2JsonRedisSerializer());
         return template;
     }
-}
\ No newline at end of file
+
+    // Reads legacy JDK entries too, so switching format needs no Redis flush
+    @Bean
+    public ResourceCacheCodec resourceCacheCodec(
+            MeterRegistry meterRegistry,
+            @Value("${wellness.cache.codec.format:smile}") String format,
+            @Value("${wellness.cache.codec.compress-threshold:2048}") int compressThreshold) {
+        return new ResourceCacheCodec(ResourceCacheCodec.Format.valueOf(format.toUpperCase()), compressThreshold,
+                meterRegistry);
+    }
+
+    // L2: the shared Redis cache every replica reads from
+    @Bean
+    public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+                                               ResourceCacheCodec resourceCacheCodec,
+                                               @Value("${wellness.cache.redis.ttl:10m}") Duration ttl,
+                                               @Value("${wellness.cache.redis.negative-ttl:30s}") Duration negativeTtl) {
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig().entryTtl(ttl);
+        // Misses (unknown ids, empty lists) are cached briefly so repeated probes stay off Postgres
+        // without pinning an empty answer for the full TTL
+        RedisCacheConfiguration resources = defaults
+                .entryTtl((key, value) -> isNegative(value) ? negativeTtl : ttl)
+                .serializeValuesWith(SerializationPair.fromSerializer(resourceCacheCodec));
+        return RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaults)
+                .withCacheConfiguration(ResourceCacheKeys.CACHE_NAME, resources)
+                .build();
+    }
+
+    private static boolean isNegative(Object value) {
+        return value == null || value instanceof NullValue
+                || (value instanceof ResourceListBody list && list.getCount() == 0);
+    }
+
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(
+            StringRedisTemplate stringRedisTemplate,
+            @Value("${wellness.cache.invalidation-channel:wellness:cache:invalidation}") String channel) {
+        return new CacheInvalidationPublisher(stringRedisTemplate, channel);
+    }
+
+    // L1 + L2: what @Cacheable/@CacheEvict actually talk to
+    @Bean
+    @Primary
+    public TwoTierCacheManager cacheManager(RedisCacheManager redisCacheManager,
+                                            StringRedisTemplate stringRedisTemplate,
+                                            CacheInvalidationPublisher publisher,
+                                            MeterRegistry meterRegistry,
+                                            @Value("${wellness.cache.l1.maximum-size:1000}") long l1MaximumSize,
+                                            @Value("${wellness.cache.l1.ttl:30s}") Duration l1Ttl,
+                                            @Value("${wellness.cache.load-lock.enabled:false}") boolean loadLockEnabled,
+                                            @Value("${wellness.cache.load-lock.lease:5s}") Duration loadLockLease,
+                                            @Value("${wellness.cache.load-lock.max-wait:500ms}") Duration loadLockMaxWait,
+                                            @Value("${wellness.cache.load-log.sample-rate:0.01}") double loadLogSampleRate) {
+        // Misses are always coalesced per replica; the Redis lock extends that across replicas
+        DistributedLoadLock loadLock = loadLockEnabled
+                ? new DistributedLoadLock(stringRedisTemplate, loadLockLease, loadLockMaxWait, Duration.ofMillis(20))
+                : null;
+        return new TwoTierCacheManager(redisCacheManager, stringRedisTemplate, publisher, loadLock,
+                meterRegistry, l1MaximumSize, l1Ttl, loadLogSampleRate);
+    }
+
+    // Keeps L1 coherent across replicas: evictions elsewhere drop our local copy.
+    // Also feeds committed resource changes to this replica's change stream subscribers.
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            TwoTierCacheManager cacheManager,
+            CacheInvalidationPublisher publisher,
+            ResourceChangeStream changeStream,
+            @Value("${wellness.cache.invalidation-channel:wellness:cache:invalidation}") String channel,
+            @Value("${wellness.resources.changes.channel:wellness:resources:changes}") String changesChannel,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (virtualThreads) {
+            // Boot does not configure listener containers we build ourselves
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("cache-invalidation-");
+            executor.setVirtualThreads(true);
+            container.setTaskExecutor(executor);
+        }
+        container.addMessageListener(new CacheInvalidationListener(cacheManager, publisher.getInstanceId()),
+                new ChannelTopic(channel));
+        container.addMessageListener(changeStream, new ChannelTopic(changesChannel));
+        return container;
+    }
+}
@@ -1,81 +1,391 @@
 package ca.gbc.comp3095.wellnessresourceservice.controller;
 
+import ca.gbc.comp3095.wellnessresourceservice.cache.ResourceCacheKeys;
+import ca.gbc.comp3095.wellnessresourceservice.dto.BulkImportResult;
+import ca.gbc.comp3095.wellnessresourceservice.dto.ResourceChangeEvent;
+import ca.gbc.comp3095.wellnessresourceservice.dto.ResourceChanges;
+import ca.gbc.comp3095.wellnessresourceservice.dto.ResourceListBody;
+import ca.gbc.comp3095.wellnessresourceservice.dto.ResourcePage;
+import ca.gbc.comp3095.wellnessresourceservice.dto.ResourceSnapshot;
 import ca.gbc.comp3095.wellnessresourceservice.model.WellnessResource;
-import ca.gbc.comp3095.wellnessresourceservice.repository.WellnessResourceRepository;
+import ca.gbc.comp3095.wellnessresourceservice.service.ResourceBulkImportService;
+import ca.gbc.comp3095.wellnessresourceservice.service.ResourceChangeLog;
+import ca.gbc.comp3095.wellnessresourceservice.service.ResourceChangeStream;
+import ca.gbc.comp3095.wellnessresourceservice.service.ResourceFacetService;
+import ca.gbc.comp3095.wellnessresourceservice.service.WellnessResourceService;
+import com.fasterxml.jackson.core.JacksonException;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.cache.annotation.Cacheable; // Required for Caching
-import org.springframework.cache.annotation.CacheEvict; // Required for Cache Eviction
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/resources")
 @Tag(name = "Wellness Resources", description = "API for managing wellness resources")
 public class WellnessResourceController {
 
+    private static final Logger logger = LoggerFactory.getLogger(WellnessResourceController.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    // Bounds one batch lookup (a single MGET and IN query); callers chunk longer lists
+    private static final int MAX_BATCH_IDS = 500;
+    // Trigram indexes only help for queries of at least three characters
+    private static final int MIN_SEARCH_LENGTH = 3;
+    // Gzip bodies differ byte-for-byte from the identity body, so they get their own strong ETag
+    private static final String GZIP_ETAG_SUFFIX = "-gzip";
+    // Comment lines keep idle change streams open through proxies
+    private static final Duration STREAM_HEARTBEAT = Duration.ofSeconds(15);
+
+    // Caching lives in the service: reads are read-through, writes are write-through
+    // and only evict the list entries they affect
+    @Autowired
+    private WellnessResourceService resourceService;
+
+    @Autowired
+    private ResourceBulkImportService bulkImportService;
+
     @Autowired
-    private WellnessResourceRepository repository;
+    private ResourceFacetService facetService;
+
+    @Autowired
+    private ResourceChangeLog changeLog;
+
+    @Autowired
+    private ResourceChangeStream changeStream;
 
     // READ: Caching the resource list (Day 3)
-    @Operation(summary = "Get all wellness resources", description = "Retrieve all wellness resources, optionally filtered by eventId or category")
+    @Operation(summary = "Get all wellness resources", description = "Retrieve all wellness resources, optionally filtered by category or by the event they are linked to")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved resources")
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved resources",
+                content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                        array = @ArraySchema(schema = @Schema(implementation = WellnessResource.class))))
     })
-    @Cacheable("resources")
     @GetMapping
-    public List<WellnessResource> getAllResources(@RequestParam(required = false) Long eventId,
-                                                   @RequestParam(required = false) String category) {
-        System.out.println("--- FETCHING ALL RESOURCES FROM DATABASE (Slow) ---");
+    public ResponseEntity<byte[]> getAllResources(
+            @RequestParam(required = false) Long eventId,
+            @RequestParam(required = false) String category,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (eventId != null) {
+            return conditionalList(ResourceCacheKeys.event(eventId), ifNoneMatch, acceptEncoding,
+                    () -> resourceService.findByEventBody(eventId));
+        }
         if (category != null && !category.isEmpty()) {
-            return repository.findByCategory(category);
+            return conditionalList(ResourceCacheKeys.category(category), ifNoneMatch, acceptEncoding,
+                    () -> resourceService.findByCategoryBody(category));
+        }
+        return conditionalList(ResourceCacheKeys.all(), ifNoneMatch, acceptEncoding, resourceService::findAllBody);
+    }
+
+    // READ: Keyset pagination, selected by the presence of ?size= (callers without it keep getting the full list)
+    @Operation(summary = "Get a page of wellness resources", description = "Cursor-paginated resources ordered by id; pass nextCursor back as cursor for the next page")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved page")
+    })
+    @GetMapping(params = "size")
+    public ResourcePage getResourcePage(@RequestParam int size,
+                                        @RequestParam(required = false) Long cursor,
+                                        @RequestParam(required = false) String category) {
+        return resourceService.findPage(cursor, size, category);
+    }
+
+    @GetMapping(params = {"cursor", "!size"})
+    public ResourcePage getResourcePageFromCursor(@RequestParam Long cursor,
+                                                  @RequestParam(required = false) String category) {
+        return resourceService.findPage(cursor, DEFAULT_PAGE_SIZE, category);
+    }
+
+    // READ: Many resources by id in one call, from the per-id cache entries
+    @Operation(summary = "Get wellness resources by ids", description = "Resolve up to 500 ids in one call; unknown ids are omitted")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved resources"),
+        @ApiResponse(responseCode = "400", description = "More than 500 ids")
+    })
+    @GetMapping("/batch")
+    public List<WellnessResource> getResourcesByIds(@RequestParam List<Long> ids) {
+        return findBatch(ids);
+    }
+
+    // Same lookup for id lists too long for a query string
+    @Operation(summary = "Get wellness resources by ids (POST)", description = "Same as GET /batch with the ids as a JSON array body")
+    @PostMapping("/batch")
+    public List<WellnessResource> postResourcesByIds(@RequestBody List<Long> ids) {
+        return findBatch(ids);
+    }
+
+    // READ: Category tab counts, from counters maintained on every write
+    @Operation(summary = "Get resource counts per category", description = "Number of resources in each category, for category tabs")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved counts")
+    })
+    @GetMapping("/facets")
+    public Map<String, Long> getCategoryFacets() {
+        return facetService.counts();
+    }
+
+    // READ: Full copy for downstream replicas, labelled with the change log version it reflects
+    @Operation(summary = "Get a snapshot of all wellness resources", description = "Every resource plus the change log version; poll /changes?since=<version> afterwards")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved snapshot")
+    })
+    @GetMapping("/snapshot")
+    public ResourceSnapshot getSnapshot() {
+        return changeLog.snapshot();
+    }
+
+    // READ: Deltas since a snapshot or a previous poll (creates/updates as upserts, deletes as tombstones)
+    @Operation(summary = "Get resource changes since a version", description = "Latest state of every resource changed after since; repeat with since=version while hasMore")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved changes"),
+        @ApiResponse(responseCode = "410", description = "Version no longer retained; take a new snapshot")
+    })
+    @GetMapping("/changes")
+    public ResourceChanges getChanges(@RequestParam long since,
+                                      @RequestParam(defaultValue = "500") int limit) {
+        try {
+            return changeLog.changesSince(since, limit);
+        } catch (ResourceChangeLog.ChangesExpiredException e) {
+            throw new ResponseStatusException(HttpStatus.GONE, e.getMessage(), e);
+        }
+    }
+
+    // READ: Push feed of changes; reconnecting with Last-Event-ID (or ?since=) resumes without gaps
+    @Operation(summary = "Stream resource changes", description = "Server-sent events per create/update/delete, id = change log version; resume with Last-Event-ID or since")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Event stream opened"),
+        @ApiResponse(responseCode = "410", description = "Version no longer retained; take a new snapshot")
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ResourceChangeEvent>> streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) Long since) {
+        Long from = lastEventId != null ? lastEventId : since;
+        if (from != null) {
+            try {
+                changeStream.checkResumable(from);
+            } catch (ResourceChangeLog.ChangesExpiredException e) {
+                throw new ResponseStatusException(HttpStatus.GONE, e.getMessage(), e);
+            }
         }
-        // If eventId is provided, return all resources (can be filtered later if needed)
-        return repository.findAll();
+        Flux<ServerSentEvent<ResourceChangeEvent>> changes = changeStream.subscribe(from)
+                .map(e -> ServerSentEvent.builder(e)
+                        .id(Long.toString(e.getVersion()))
+                        .event(e.getType())
+                        .build());
+        Flux<ServerSentEvent<ResourceChangeEvent>> heartbeats = Flux.interval(STREAM_HEARTBEAT)
+                .map(tick -> ServerSentEvent.<ResourceChangeEvent>builder().comment("keep-alive").build());
+        return Flux.merge(changes, heartbeats);
+    }
+
+    // READ: Ranked substring search over title and description
+    @Operation(summary = "Search wellness resources", description = "Substring/prefix search on title and description, best matches first")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully searched resources"),
+        @ApiResponse(responseCode = "400", description = "Query shorter than 3 characters")
+    })
+    @GetMapping("/search")
+    public List<WellnessResource> searchResources(@RequestParam String q,
+                                                  @RequestParam(defaultValue = "20") int limit) {
+        if (q.trim().length() < MIN_SEARCH_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Query must be at least " + MIN_SEARCH_LENGTH + " characters");
+        }
+        return resourceService.search(q, limit);
+    }
+
+    // READ: Full export as NDJSON, streamed from a database cursor
+    @Operation(summary = "Export all wellness resources", description = "Stream every resource as newline-delimited JSON")
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public StreamingResponseBody exportResources() {
+        return out -> resourceService.exportNdjson(out);
     }
 
     // READ: Caching filtered resources (Day 3)
     @Operation(summary = "Get resources by category", description = "Retrieve wellness resources filtered by category")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved resources")
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved resources",
+                content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                        array = @ArraySchema(schema = @Schema(implementation = WellnessResource.class))))
     })
-    @Cacheable(value = "resources", key = "#category")
     @GetMapping("/category/{category}")
-    public List<WellnessResource> getResourcesByCategory(@PathVariable String category) {
-        System.out.println("--- FETCHING RESOURCES BY CATEGORY FROM DATABASE (Slow) ---");
-        return repository.findByCategory(category);
+    public ResponseEntity<byte[]> getResourcesByCategory(
+            @PathVariable String category,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return conditionalList(ResourceCacheKeys.category(category), ifNoneMatch, acceptEncoding,
+                () -> resourceService.findByCategoryBody(category));
+    }
+
+    // READ: Single resource, served from its own per-id cache entry
+    @Operation(summary = "Get a wellness resource by id", description = "Retrieve a single wellness resource")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved resource"),
+        @ApiResponse(responseCode = "404", description = "Resource not found")
+    })
+    @GetMapping("/{id}")
+    public WellnessResource getResource(@PathVariable Long id) {
+        return resourceService.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Resource not found"));
     }
 
-    // WRITE: Evicts the cache when a new resource is created (Day 3)
+    // WRITE: Caches the new resource and evicts the lists it belongs to (Day 3)
     @Operation(summary = "Create a new wellness resource", description = "Create a new wellness resource (requires STAFF role)")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Resource created successfully"),
         @ApiResponse(responseCode = "403", description = "Forbidden - STAFF role required")
     })
-    @CacheEvict(value = "resources", allEntries = true)
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public WellnessResource createResource(@RequestBody WellnessResource resource) {
-        return repository.save(resource);
+        return resourceService.create(resource);
+    }
+
+    // WRITE: Bulk create/upsert with batched inserts and a single cache invalidation
+    @Operation(summary = "Bulk import wellness resources", description = "Create or update many resources from a JSON array or NDJSON stream (requires STAFF role)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Resources imported"),
+        @ApiResponse(responseCode = "400", description = "Malformed JSON; batches before the bad row are kept")
+    })
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public BulkImportResult bulkImport(InputStream body) throws IOException {
+        try {
+            return bulkImportService.importResources(body);
+        } catch (JacksonException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed resource: " + e.getOriginalMessage(), e);
+        }
     }
 
-    // WRITE: Evicts the cache when a resource is updated (Day 3)
-    @CacheEvict(value = "resources", allEntries = true)
+    // WRITE: Updates the cached resource and evicts its old and new category lists (Day 3)
     @PutMapping("/{id}")
     public WellnessResource updateResource(@PathVariable Long id, @RequestBody WellnessResource resource) {
-        resource.setId(id);
-        return repository.save(resource);
+        return resourceService.update(id, resource);
     }
 
-    // WRITE: Evicts the cache when a resource is deleted (Day 3)
-    @CacheEvict(value = "resources", allEntries = true)
+    // WRITE: Evicts the resource and the lists it belonged to (Day 3)
     @DeleteMapping("/{id}")
     public void deleteResource(@PathVariable Long id) {
-        repository.deleteById(id);
+        resourceService.delete(id);
+    }
+
+    // WRITE: Links a resource to an event and evicts that event's list
+    @Operation(summary = "Link a resource to an event", description = "Idempotent; the resource is then returned by ?eventId=")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Resource linked"),
+        @ApiResponse(responseCode = "404", description = "Resource not found")
+    })
+    @PutMapping("/{id}/events/{eventId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void linkToEvent(@PathVariable Long id, @PathVariable Long eventId) {
+        if (!resourceService.link(eventId, id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Resource not found");
+        }
+    }
+
+    // WRITE: Removes the link and evicts that event's list
+    @Operation(summary = "Unlink a resource from an event")
+    @DeleteMapping("/{id}/events/{eventId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void unlinkFromEvent(@PathVariable Long id, @PathVariable Long eventId) {
+        resourceService.unlink(eventId, id);
+    }
+
+    private List<WellnessResource> findBatch(List<Long> ids) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BATCH_IDS + " ids per request");
+        }
+        return resourceService.findAllById(ids);
+    }
+
+    /**
+     * Answers If-None-Match from the list version alone (one Redis read, no cache or
+     * database access); otherwise writes the cached JSON bytes with the list version as a
+     * strong ETag. Gzipped bodies go out as-is to clients that accept gzip, tagged
+     * {@code "<version>-gzip"} since their bytes differ from the identity body; a
+     * validator in either form is honoured.
+     */
+    private ResponseEntity<byte[]> conditionalList(String listKey, String ifNoneMatch, String acceptEncoding,
+                                                   Supplier<ResourceListBody> loader) {
+        if (ifNoneMatch != null) {
+            String current = currentVersionOrNull(listKey);
+            if (current != null) {
+                if (matchesAny(ifNoneMatch, current + GZIP_ETAG_SUFFIX)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current + GZIP_ETAG_SUFFIX).build();
+                }
+                if (matchesAny(ifNoneMatch, current)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+                }
+            }
+        }
+        ResourceListBody list = loader.get();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (list.isGzipped() && acceptsGzip(acceptEncoding)) {
+            return response.eTag(list.getVersion() + GZIP_ETAG_SUFFIX)
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(list.getBody());
+        }
+        return response.eTag(list.getVersion()).body(list.json());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                // "gzip;q=0" explicitly refuses it
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private String currentVersionOrNull(String listKey) {
+        try {
+            return resourceService.currentVersion(listKey);
+        } catch (RuntimeException e) {
+            // Without a version we simply serve the full response
+            logger.warn("Could not read version of {}: {}", listKey, e.getMessage());
+            return null;
+        }
+    }
+
+    // If-None-Match uses weak comparison, so W/ prefixes are ignored
+    private static boolean matchesAny(String ifNoneMatch, String version) {
+        String quoted = "\"" + version + "\"";
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(quoted)) {
+                return true;
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
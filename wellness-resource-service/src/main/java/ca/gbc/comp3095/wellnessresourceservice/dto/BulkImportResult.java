@@ -0,0 +1,20 @@
+package ca.gbc.comp3095.wellnessresourceservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a bulk create/upsert request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResult {
+    private long received;
+    private long created;
+    private long updated;
+    private int batches;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+}
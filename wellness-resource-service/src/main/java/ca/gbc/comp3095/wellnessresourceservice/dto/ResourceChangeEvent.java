@@ -0,0 +1,29 @@
+package ca.gbc.comp3095.wellnessresourceservice.dto;
+
+import ca.gbc.comp3095.wellnessresourceservice.model.ResourceChange;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Push notification for one change log entry. {@code type} is {@link #UPSERT} for creates
+ * and updates, {@link #DELETE} for deletes; {@code version} is the change log version
+ * (the SSE event id, to resume from after a reconnect).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceChangeEvent {
+    public static final String UPSERT = "upsert";
+    public static final String DELETE = "delete";
+
+    private long version;
+    private Long resourceId;
+    private String type;
+    private String category;
+
+    public static ResourceChangeEvent of(ResourceChange change) {
+        return new ResourceChangeEvent(change.getVersion(), change.getResourceId(),
+                change.isDeleted() ? DELETE : UPSERT, change.getCategory());
+    }
+}
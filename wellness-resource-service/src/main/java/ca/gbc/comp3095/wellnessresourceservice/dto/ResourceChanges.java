@@ -0,0 +1,25 @@
+package ca.gbc.comp3095.wellnessresourceservice.dto;
+
+import ca.gbc.comp3095.wellnessresourceservice.model.WellnessResource;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Changes after {@code since} up to {@code version}, collapsed to the latest state of each
+ * resource: {@code upserts} hold the resources created or updated (current content),
+ * {@code deleted} the ids removed. Poll again with {@code since = version}; when
+ * {@code hasMore} is set, do so right away.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceChanges {
+    private long since;
+    private long version;
+    private boolean hasMore;
+    private List<WellnessResource> upserts;
+    private List<Long> deleted;
+}
@@ -0,0 +1,64 @@
+package ca.gbc.comp3095.wellnessresourceservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A cached resource list in its final response form: the JSON array bytes, gzipped when
+ * that is worth it, plus the list version captured before it was loaded. Hot reads copy
+ * {@link #getBody()} straight to the response without building any resource objects.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceListBody implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String version;
+    private int count;
+    private byte[] body;
+    private boolean gzipped;
+
+    /** Wraps serialized JSON, gzipping it when it is at least {@code gzipThreshold} bytes and shrinks. */
+    public static ResourceListBody of(String version, int count, byte[] json, int gzipThreshold) {
+        if (json.length >= gzipThreshold) {
+            byte[] compressed = gzip(json);
+            if (compressed.length < json.length) {
+                return new ResourceListBody(version, count, compressed, true);
+            }
+        }
+        return new ResourceListBody(version, count, json, false);
+    }
+
+    /** The uncompressed JSON, for clients that do not accept gzip and for in-process callers. */
+    public byte[] json() {
+        if (!gzipped) {
+            return body;
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt gzipped resource list " + version, e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,21 @@
+package ca.gbc.comp3095.wellnessresourceservice.dto;
+
+import ca.gbc.comp3095.wellnessresourceservice.model.WellnessResource;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of resources. Pass {@code nextCursor} back as {@code cursor} to get the
+ * following page; it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourcePage {
+    private List<WellnessResource> items;
+    private Long nextCursor;
+    private int size;
+}
@@ -0,0 +1,20 @@
+package ca.gbc.comp3095.wellnessresourceservice.dto;
+
+import ca.gbc.comp3095.wellnessresourceservice.model.WellnessResource;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Every resource as of change log {@code version}. Pass the version as {@code since}
+ * to the changes endpoint to keep a local copy up to date.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceSnapshot {
+    private long version;
+    private List<WellnessResource> items;
+}
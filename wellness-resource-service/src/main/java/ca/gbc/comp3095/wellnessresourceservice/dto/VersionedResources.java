@@ -0,0 +1,24 @@
+package ca.gbc.comp3095.wellnessresourceservice.dto;
+
+import ca.gbc.comp3095.wellnessresourceservice.model.WellnessResource;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A cached resource list together with the list version captured before it was loaded.
+ * The version travels with the list so a replica serving an older copy never labels it
+ * with a newer ETag.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionedResources implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String version;
+    private List<WellnessResource> items;
+}
@@ -0,0 +1,39 @@
+package ca.gbc.comp3095.wellnessresourceservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.io.Serializable;
+
+/**
+ * Associates a wellness resource with an event of event-service. Events live in another
+ * service, so event_id is a plain column rather than a foreign key.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(EventResourceLink.Key.class)
+// Primary key (event_id, resource_id) serves the per-event lookup; resource_id needs its
+// own index for the "which events use this resource" lookup on updates and deletes
+@Table(name = "event_resource_link",
+        indexes = @Index(name = "idx_event_resource_link_resource_id", columnList = "resource_id"))
+public class EventResourceLink {
+
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Id
+    @Column(name = "resource_id")
+    private Long resourceId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private Long eventId;
+        private Long resourceId;
+    }
+}
@@ -0,0 +1,36 @@
+package ca.gbc.comp3095.wellnessresourceservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+
+/**
+ * One entry of the resource change log. Versions come from the single-row
+ * resource_change_clock (see schema.sql), which writers lock for the rest of their
+ * transaction, so entries become visible in version order and a reader that sees
+ * version n has also seen every earlier one.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+// changed_at serves retention pruning; the version primary key serves the delta reads
+@Table(name = "resource_change", indexes = @Index(name = "idx_resource_change_changed_at", columnList = "changed_at"))
+public class ResourceChange {
+
+    @Id
+    private Long version;
+
+    @Column(name = "resource_id", nullable = false)
+    private Long resourceId;
+
+    // Category after the change (before it, for deletes), so consumers can invalidate per category
+    private String category;
+
+    // Tombstone: the resource was deleted at this version
+    @Column(nullable = false)
+    private boolean deleted;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+}
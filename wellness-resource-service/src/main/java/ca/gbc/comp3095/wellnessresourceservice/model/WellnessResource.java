@@ -8,11 +8,16 @@ import java.io.Serializable;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+// (category, id) serves both category lookups and category keyset pages
+@Table(indexes = @Index(name = "idx_wellness_resource_category_id", columnList = "category, id"))
 public class WellnessResource implements Serializable {
     // Recommended: Add a serial version UID
     private static final long serialVersionUID = 1L;
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts:
+    // one nextval reserves allocationSize ids (see schema.sql for realignment)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wellness_resource_seq")
+    @SequenceGenerator(name = "wellness_resource_seq", sequenceName = "wellness_resource_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -0,0 +1,8 @@
+package ca.gbc.comp3095.wellnessresourceservice.repository;
+
+/** Projection of one GROUP BY category row. */
+public interface CategoryCount {
+    String getCategory();
+
+    long getCount();
+}
@@ -0,0 +1,31 @@
+package ca.gbc.comp3095.wellnessresourceservice.repository;
+
+import ca.gbc.comp3095.wellnessresourceservice.model.EventResourceLink;
+import ca.gbc.comp3095.wellnessresourceservice.model.WellnessResource;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface EventResourceLinkRepository extends JpaRepository<EventResourceLink, EventResourceLink.Key> {
+
+    // Index range scan on the (event_id, resource_id) primary key, then a join by resource id
+    @Query("select r from EventResourceLink l join WellnessResource r on r.id = l.resourceId "
+            + "where l.eventId = :eventId order by r.id")
+    List<WellnessResource> findResourcesByEventId(@Param("eventId") Long eventId);
+
+    @Query("select distinct l.eventId from EventResourceLink l where l.resourceId in :resourceIds")
+    List<Long> findEventIdsByResourceIdIn(@Param("resourceIds") Collection<Long> resourceIds);
+
+    @Modifying
+    @Transactional
+    @Query("delete from EventResourceLink l where l.resourceId = :resourceId")
+    int deleteByResourceId(@Param("resourceId") Long resourceId);
+}
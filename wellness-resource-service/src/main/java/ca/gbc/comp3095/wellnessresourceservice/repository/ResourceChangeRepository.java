@@ -0,0 +1,49 @@
+package ca.gbc.comp3095.wellnessresourceservice.repository;
+
+import ca.gbc.comp3095.wellnessresourceservice.model.ResourceChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface ResourceChangeRepository extends JpaRepository<ResourceChange, Long> {
+
+    // Delta reads: a range scan on the version primary key
+    List<ResourceChange> findByVersionGreaterThanOrderByVersionAsc(Long version, Limit limit);
+
+    // Reserves count versions and returns the last one. The clock row stays locked until
+    // the caller's transaction ends, which is what keeps versions in commit order.
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = "UPDATE resource_change_clock SET version = version + :count WHERE id = 1 RETURNING version",
+            nativeQuery = true)
+    long advanceClock(@Param("count") int count);
+
+    @Query(value = "SELECT version FROM resource_change_clock WHERE id = 1", nativeQuery = true)
+    long currentVersion();
+
+    @Query(value = "SELECT pruned_through FROM resource_change_clock WHERE id = 1", nativeQuery = true)
+    long prunedThrough();
+
+    @Query("select max(c.version) from ResourceChange c where c.changedAt < :cutoff")
+    Long findLastVersionBefore(@Param("cutoff") Instant cutoff);
+
+    @Modifying
+    @Transactional
+    @Query("delete from ResourceChange c where c.version <= :version")
+    int deleteThrough(@Param("version") Long version);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE resource_change_clock SET pruned_through = GREATEST(pruned_through, :version) WHERE id = 1",
+            nativeQuery = true)
+    int markPrunedThrough(@Param("version") long version);
+}
@@ -1,14 +1,60 @@
 package ca.gbc.comp3095.wellnessresourceservice.repository;
 
 import ca.gbc.comp3095.wellnessresourceservice.model.WellnessResource;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
+// Query methods run read-only, so they can be routed to a read replica (see ReadReplicaConfig)
+@Transactional(readOnly = true)
 public interface WellnessResourceRepository extends JpaRepository<WellnessResource, Long> {
 
     // Spring Data JPA Query Method for filtering
     List<WellnessResource> findByCategory(String category);
-}
\ No newline at end of file
+
+    // Keyset pagination: next page starts after the last id of the previous one
+    List<WellnessResource> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<WellnessResource> findByCategoryAndIdGreaterThanOrderByIdAsc(String category, Long id, Limit limit);
+
+    // Rebuilds the category membership filter
+    @Query("select distinct r.category from WellnessResource r where r.category is not null")
+    List<String> findDistinctCategories();
+
+    // Facet reconciliation only; the facets endpoint reads precomputed counters
+    @Query("select r.category as category, count(r) as count from WellnessResource r "
+            + "where r.category is not null group by r.category")
+    List<CategoryCount> countByCategory();
+
+    // Full export: rows are pulled from a server-side cursor in fetch-size chunks.
+    // Must be consumed inside a read-only transaction and closed afterwards.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select r from WellnessResource r order by r.id")
+    Stream<WellnessResource> streamAllOrderedById();
+
+    // Substring search on title/description, served by the pg_trgm GIN indexes from schema.sql.
+    // Title prefix matches rank first, then title similarity, then description similarity.
+    @Query(value = """
+            SELECT * FROM wellness_resource r
+            WHERE r.title ILIKE :pattern OR r.description ILIKE :pattern
+            ORDER BY (r.title ILIKE :prefix) DESC,
+                     similarity(r.title, :q) DESC,
+                     similarity(coalesce(r.description, ''), :q) DESC,
+                     r.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<WellnessResource> search(@Param("q") String q,
+                                  @Param("pattern") String pattern,
+                                  @Param("prefix") String prefix,
+                                  @Param("limit") int limit);
+}
@@ -0,0 +1,111 @@
+package ca.gbc.comp3095.wellnessresourceservice.service;
+
+import ca.gbc.comp3095.wellnessresourceservice.cache.BloomFilter;
+import ca.gbc.comp3095.wellnessresourceservice.cache.ResourceCacheKeys;
+import ca.gbc.comp3095.wellnessresourceservice.cache.ResourceVersions;
+import ca.gbc.comp3095.wellnessresourceservice.config.DataSourceRouting;
+import ca.gbc.comp3095.wellnessresourceservice.repository.WellnessResourceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Guards category lookups against cache penetration: a Bloom filter of the categories
+ * that exist, rebuilt periodically from the database and extended on local writes.
+ *
+ * Categories created on another replica are not in this replica's filter until the next
+ * rebuild, so a category the filter rejects is rechecked against its list version in
+ * Redis: any write to the category has bumped it. Only categories that were never written
+ * are rejected, without touching the cache or the database.
+ */
+@Component
+public class KnownCategories {
+
+    private static final Logger logger = LoggerFactory.getLogger(KnownCategories.class);
+
+    private final WellnessResourceRepository repository;
+    private final ResourceVersions versions;
+    private final double falsePositiveRate;
+    private final Counter passed;
+    private final Counter rechecked;
+    private final Counter rejected;
+
+    private volatile BloomFilter filter;
+
+    public KnownCategories(WellnessResourceRepository repository,
+                           ResourceVersions versions,
+                           MeterRegistry meterRegistry,
+                           @Value("${wellness.resources.category-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.repository = repository;
+        this.versions = versions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.passed = lookupCounter(meterRegistry, "passed");
+        this.rechecked = lookupCounter(meterRegistry, "rechecked");
+        this.rejected = lookupCounter(meterRegistry, "rejected");
+    }
+
+    /** False only for categories that certainly have no resources. */
+    public boolean mightExist(String category) {
+        BloomFilter current = filter;
+        if (current == null) {
+            current = rebuildQuietly();
+        }
+        if (current == null || current.mightContain(category)) {
+            passed.increment();
+            return true;
+        }
+        if (!versions.current(ResourceCacheKeys.category(category)).endsWith("-0")) {
+            rechecked.increment();
+            current.add(category);
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void add(String category) {
+        BloomFilter current = filter;
+        if (current != null && category != null) {
+            current.add(category);
+        }
+    }
+
+    // Rebuilding also drops categories whose last resource was deleted
+    @Scheduled(fixedDelayString = "${wellness.resources.category-filter.rebuild-interval:10m}",
+            initialDelayString = "${wellness.resources.category-filter.rebuild-interval:10m}")
+    public void scheduledRebuild() {
+        rebuildQuietly();
+    }
+
+    public BloomFilter rebuild() {
+        List<String> categories = DataSourceRouting.onPrimary(repository::findDistinctCategories);
+        // Headroom for categories added before the next rebuild
+        BloomFilter rebuilt = new BloomFilter(Math.max(1024, categories.size() * 2), falsePositiveRate);
+        categories.forEach(rebuilt::add);
+        filter = rebuilt;
+        return rebuilt;
+    }
+
+    private BloomFilter rebuildQuietly() {
+        try {
+            return rebuild();
+        } catch (RuntimeException e) {
+            // Without a filter every lookup is let through
+            logger.warn("Could not rebuild category filter: {}", e.getMessage());
+            return filter;
+        }
+    }
+
+    private static Counter lookupCounter(MeterRegistry registry, String result) {
+        return Counter.builder("wellness.resources.category.lookups")
+                .description("Category lookups by outcome of the membership filter")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,196 @@
+package ca.gbc.comp3095.wellnessresourceservice.service;
+
+import ca.gbc.comp3095.wellnessresourceservice.cache.ResourceCacheKeys;
+import ca.gbc.comp3095.wellnessresourceservice.cache.ResourceVersions;
+import ca.gbc.comp3095.wellnessresourceservice.cache.TwoTierCache;
+import ca.gbc.comp3095.wellnessresourceservice.dto.BulkImportResult;
+import ca.gbc.comp3095.wellnessresourceservice.model.WellnessResource;
+import ca.gbc.comp3095.wellnessresourceservice.repository.EventResourceLinkRepository;
+import ca.gbc.comp3095.wellnessresourceservice.repository.WellnessResourceRepository;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk create/upsert of resources from a JSON array or NDJSON stream.
+ *
+ * Input is parsed incrementally and written in chunks of the JDBC batch size, one
+ * transaction per chunk, so neither the request body nor the persistence context grows
+ * with the import. Rows with an id that already exists are updated; all others are
+ * inserted with a new id. The cache is invalidated, and list versions bumped, once
+ * after the last chunk.
+ */
+@Service
+public class ResourceBulkImportService {
+
+    private final WellnessResourceRepository repository;
+    private final EventResourceLinkRepository linkRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache cache;
+    private final ResourceVersions versions;
+    private final ResourceFacetService facets;
+    private final KnownCategories knownCategories;
+    private final ResourceChangeLog changeLog;
+    private final ObjectReader resourceReader;
+    private final int batchSize;
+
+    public ResourceBulkImportService(WellnessResourceRepository repository,
+                                     EventResourceLinkRepository linkRepository,
+                                     EntityManager entityManager,
+                                     TransactionTemplate transactionTemplate,
+                                     CacheManager cacheManager,
+                                     ResourceVersions versions,
+                                     ResourceFacetService facets,
+                                     KnownCategories knownCategories,
+                                     ResourceChangeLog changeLog,
+                                     ObjectMapper objectMapper,
+                                     @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.repository = repository;
+        this.linkRepository = linkRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.cache = cacheManager.getCache(ResourceCacheKeys.CACHE_NAME);
+        this.versions = versions;
+        this.facets = facets;
+        this.knownCategories = knownCategories;
+        this.changeLog = changeLog;
+        this.resourceReader = objectMapper.readerFor(WellnessResource.class);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Accepts either a top-level JSON array or whitespace/newline separated objects.
+     * Chunks written before a malformed row stay committed.
+     */
+    public BulkImportResult importResources(InputStream body) throws IOException {
+        long started = System.nanoTime();
+        ImportStats stats = new ImportStats();
+        Set<String> listKeys = new LinkedHashSet<>();
+        Set<String> idKeys = new LinkedHashSet<>();
+
+        try (MappingIterator<WellnessResource> rows = resourceReader.readValues(body)) {
+            List<WellnessResource> chunk = new ArrayList<>(batchSize);
+            while (rows.hasNextValue()) {
+                chunk.add(rows.nextValue());
+                if (chunk.size() == batchSize) {
+                    writeChunk(chunk, stats, listKeys, idKeys);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, stats, listKeys, idKeys);
+            }
+        } finally {
+            invalidate(listKeys, idKeys);
+            facets.apply(stats.categoryDeltas);
+            stats.categoryDeltas.keySet().forEach(knownCategories::add);
+        }
+
+        long elapsedNanos = Math.max(1, System.nanoTime() - started);
+        long received = stats.created + stats.updated;
+        return new BulkImportResult(received, stats.created, stats.updated, stats.batches,
+                elapsedNanos / 1_000_000, received * 1_000_000_000.0 / elapsedNanos);
+    }
+
+    private void writeChunk(List<WellnessResource> chunk, ImportStats stats,
+                            Set<String> listKeys, Set<String> idKeys) {
+        Map<String, Long> categoryDeltas = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> ids = chunk.stream().map(WellnessResource::getId).filter(Objects::nonNull).toList();
+            Map<Long, WellnessResource> existing = ids.isEmpty() ? Map.of()
+                    : repository.findAllById(ids).stream()
+                            .collect(Collectors.toMap(WellnessResource::getId, Function.identity()));
+
+            if (!existing.isEmpty()) {
+                // Updated resources also appear in the lists of the events they are linked to
+                linkRepository.findEventIdsByResourceIdIn(existing.keySet())
+                        .forEach(eventId -> listKeys.add(ResourceCacheKeys.event(eventId)));
+            }
+
+            for (WellnessResource incoming : chunk) {
+                WellnessResource current = incoming.getId() != null ? existing.get(incoming.getId()) : null;
+                if (current != null) {
+                    // Managed entity: dirty checking turns this into a batched UPDATE
+                    listKeys.add(ResourceCacheKeys.category(current.getCategory()));
+                    countMove(categoryDeltas, current.getCategory(), incoming.getCategory());
+                    current.setTitle(incoming.getTitle());
+                    current.setDescription(incoming.getDescription());
+                    current.setCategory(incoming.getCategory());
+                    current.setUrl(incoming.getUrl());
+                    stats.updated++;
+                } else {
+                    incoming.setId(null);
+                    entityManager.persist(incoming);
+                    countMove(categoryDeltas, null, incoming.getCategory());
+                    stats.created++;
+                }
+                listKeys.add(ResourceCacheKeys.category(incoming.getCategory()));
+            }
+
+            entityManager.flush();
+            // New ids are only known after persist; they may have been probed (and cached as missing)
+            chunk.forEach(r -> idKeys.add(ResourceCacheKeys.id(r.getId())));
+            changeLog.recordUpserts(chunk);
+            entityManager.flush();
+            entityManager.clear();
+        });
+        // Only counted once the chunk has committed
+        categoryDeltas.forEach((category, delta) -> stats.categoryDeltas.merge(category, delta, Long::sum));
+        stats.batches++;
+    }
+
+    private static void countMove(Map<String, Long> deltas, String fromCategory, String toCategory) {
+        if (Objects.equals(fromCategory, toCategory)) {
+            return;
+        }
+        if (fromCategory != null) {
+            deltas.merge(fromCategory, -1L, Long::sum);
+        }
+        if (toCategory != null) {
+            deltas.merge(toCategory, 1L, Long::sum);
+        }
+    }
+
+    private void invalidate(Set<String> listKeys, Set<String> idKeys) {
+        if (listKeys.isEmpty()) {
+            return;
+        }
+        listKeys.add(ResourceCacheKeys.all());
+        Set<String> evictions = new LinkedHashSet<>(listKeys);
+        evictions.addAll(idKeys);
+        // Bumped on both sides of the eviction, as in WellnessResourceService
+        versions.bump(listKeys);
+        if (cache instanceof TwoTierCache twoTierCache) {
+            twoTierCache.evictAll(evictions);
+        } else {
+            evictions.forEach(cache::evict);
+        }
+        versions.bump(listKeys);
+    }
+
+    private static class ImportStats {
+        long created;
+        long updated;
+        int batches;
+        final Map<String, Long> categoryDeltas = new HashMap<>();
+    }
+}
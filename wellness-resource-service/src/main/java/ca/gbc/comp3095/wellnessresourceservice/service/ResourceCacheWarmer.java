@@ -0,0 +1,130 @@
+package ca.gbc.comp3095.wellnessresourceservice.service;
+
+import ca.gbc.comp3095.wellnessresourceservice.cache.ResourceAccessStats;
+import ca.gbc.comp3095.wellnessresourceservice.cache.ResourceCacheKeys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the hottest resource lists cached.
+ *
+ * Warm-up runs as an ApplicationRunner, which Spring Boot completes before it marks the
+ * application ready, so a new pod only receives traffic once its L1 (and Redis, if cold)
+ * holds the lists recent traffic asked for most. It is bounded by a timeout and never
+ * fails startup.
+ *
+ * Refresh-ahead periodically reloads hot lists whose Redis entry is close to expiry, so
+ * readers keep hitting the old entry until the new one replaces it. A short Redis lock per
+ * list makes one replica do each refresh.
+ */
+@Component
+public class ResourceCacheWarmer implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceCacheWarmer.class);
+    private static final String REFRESH_LOCK_PREFIX = "wellness:cache:refresh:";
+
+    private final WellnessResourceService resourceService;
+    private final ResourceAccessStats accessStats;
+    private final StringRedisTemplate redisTemplate;
+    private final String redisKeyPrefix;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final boolean warmupEnabled;
+    private final int hotLists;
+    private final Duration warmupTimeout;
+    private final boolean refreshAheadEnabled;
+    private final Duration refreshWindow;
+
+    public ResourceCacheWarmer(WellnessResourceService resourceService,
+                               ResourceAccessStats accessStats,
+                               StringRedisTemplate redisTemplate,
+                               RedisCacheManager redisCacheManager,
+                               @Value("${wellness.cache.warmup.enabled:true}") boolean warmupEnabled,
+                               @Value("${wellness.cache.warmup.hot-lists:20}") int hotLists,
+                               @Value("${wellness.cache.warmup.timeout:30s}") Duration warmupTimeout,
+                               @Value("${wellness.cache.refresh-ahead.enabled:true}") boolean refreshAheadEnabled,
+                               @Value("${wellness.cache.refresh-ahead.window:60s}") Duration refreshWindow) {
+        this.resourceService = resourceService;
+        this.accessStats = accessStats;
+        this.redisTemplate = redisTemplate;
+        RedisCache redisCache = (RedisCache) redisCacheManager.getCache(ResourceCacheKeys.CACHE_NAME);
+        this.redisKeyPrefix = redisCache.getCacheConfiguration().getKeyPrefixFor(ResourceCacheKeys.CACHE_NAME);
+        this.warmupEnabled = warmupEnabled;
+        this.hotLists = hotLists;
+        this.warmupTimeout = warmupTimeout;
+        this.refreshAheadEnabled = refreshAheadEnabled;
+        this.refreshWindow = refreshWindow;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!warmupEnabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        long deadline = started + warmupTimeout.toNanos();
+        int warmed = 0;
+        try {
+            for (String listKey : hotListKeys()) {
+                if (System.nanoTime() > deadline) {
+                    logger.warn("Cache warm-up timed out after {} lists", warmed);
+                    break;
+                }
+                resourceService.cachedList(listKey);
+                warmed++;
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Cache warm-up stopped after {} lists: {}", warmed, e.getMessage());
+        }
+        logger.info("Cache warm-up loaded {} lists in {} ms", warmed,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    @Scheduled(fixedDelayString = "${wellness.cache.refresh-ahead.interval:15s}",
+            initialDelayString = "${wellness.cache.refresh-ahead.interval:15s}")
+    public void refreshAhead() {
+        if (!refreshAheadEnabled) {
+            return;
+        }
+        try {
+            for (String listKey : hotListKeys()) {
+                Long ttlMillis = redisTemplate.getExpire(redisKeyPrefix + listKey, TimeUnit.MILLISECONDS);
+                // Negative: missing (loaded on demand as usual) or without expiry
+                if (ttlMillis == null || ttlMillis < 0 || ttlMillis > refreshWindow.toMillis()) {
+                    continue;
+                }
+                if (claimRefresh(listKey) && !resourceService.refreshList(listKey)) {
+                    logger.debug("Skipped refresh of {}: changed while reloading", listKey);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Refresh-ahead pass failed: {}", e.getMessage());
+        }
+    }
+
+    private Set<String> hotListKeys() {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(ResourceCacheKeys.all());
+        keys.addAll(accessStats.hottest(hotLists));
+        return keys;
+    }
+
+    // Held for the whole window so other replicas skip this list until it is fresh again
+    private boolean claimRefresh(String listKey) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue()
+                .setIfAbsent(REFRESH_LOCK_PREFIX + listKey, instanceId, refreshWindow));
+    }
+}
@@ -0,0 +1,182 @@
+package ca.gbc.comp3095.wellnessresourceservice.service;
+
+import ca.gbc.comp3095.wellnessresourceservice.dto.ResourceChangeEvent;
+import ca.gbc.comp3095.wellnessresourceservice.dto.ResourceChanges;
+import ca.gbc.comp3095.wellnessresourceservice.dto.ResourceSnapshot;
+import ca.gbc.comp3095.wellnessresourceservice.model.ResourceChange;
+import ca.gbc.comp3095.wellnessresourceservice.model.WellnessResource;
+import ca.gbc.comp3095.wellnessresourceservice.repository.ResourceChangeRepository;
+import ca.gbc.comp3095.wellnessresourceservice.repository.WellnessResourceRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Versioned log of resource creates, updates and deletes, so downstream services can keep
+ * a local copy: download {@link #snapshot()} once, then poll {@link #changesSince}.
+ *
+ * Entries are written in the same transaction as the resource change they describe and
+ * pushed to stream subscribers (see {@link ResourceChangeStream}) once it commits.
+ * Entries older than the retention are pruned; a client whose {@code since} predates the
+ * pruned range gets {@link ChangesExpiredException} and must take a new snapshot.
+ */
+@Service
+public class ResourceChangeLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceChangeLog.class);
+
+    private final ResourceChangeRepository changeRepository;
+    private final WellnessResourceRepository resourceRepository;
+    private final EntityManager entityManager;
+    private final ResourceChangePublisher publisher;
+    private final Duration retention;
+    private final int maxLimit;
+
+    public ResourceChangeLog(ResourceChangeRepository changeRepository,
+                             WellnessResourceRepository resourceRepository,
+                             EntityManager entityManager,
+                             ResourceChangePublisher publisher,
+                             @Value("${wellness.resources.changes.retention:7d}") Duration retention,
+                             @Value("${wellness.resources.changes.max-limit:1000}") int maxLimit) {
+        this.changeRepository = changeRepository;
+        this.resourceRepository = resourceRepository;
+        this.entityManager = entityManager;
+        this.publisher = publisher;
+        this.retention = retention;
+        this.maxLimit = maxLimit;
+    }
+
+    /** Records that the given resources were created or updated in the current transaction. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUpserts(Collection<WellnessResource> resources) {
+        record(resources, false);
+    }
+
+    /** Records a tombstone for a resource deleted in the current transaction. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDelete(WellnessResource resource) {
+        record(List.of(resource), true);
+    }
+
+    private void record(Collection<WellnessResource> resources, boolean deleted) {
+        if (resources.isEmpty()) {
+            return;
+        }
+        long last = changeRepository.advanceClock(resources.size());
+        long version = last - resources.size();
+        Instant now = Instant.now();
+        List<ResourceChangeEvent> events = new ArrayList<>(resources.size());
+        for (WellnessResource resource : resources) {
+            ResourceChange change = new ResourceChange(++version, resource.getId(), resource.getCategory(), deleted, now);
+            entityManager.persist(change);
+            events.add(ResourceChangeEvent.of(change));
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publisher.publish(events);
+            }
+        });
+    }
+
+    /** Raw entries after {@code since} in version order, for replaying the change stream. */
+    @Transactional(readOnly = true)
+    public List<ResourceChange> entriesSince(long since, int limit) {
+        return changeRepository.findByVersionGreaterThanOrderByVersionAsc(since, Limit.of(limit));
+    }
+
+    /** Throws {@link ChangesExpiredException} if entries after {@code since} may have been pruned. */
+    @Transactional(readOnly = true)
+    public void checkRetained(long since) {
+        if (since < changeRepository.prunedThrough()) {
+            throw new ChangesExpiredException(since);
+        }
+    }
+
+    /**
+     * Every resource together with the change log version it reflects. Repeatable read makes
+     * the clock and the rows one snapshot, so no change is both in the items and after the version.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public ResourceSnapshot snapshot() {
+        long version = changeRepository.currentVersion();
+        return new ResourceSnapshot(version, resourceRepository.findAll());
+    }
+
+    /** Up to {@code limit} change log entries after {@code since}, collapsed per resource. */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public ResourceChanges changesSince(long since, int limit) {
+        checkRetained(since);
+        int pageSize = Math.max(1, Math.min(limit, maxLimit));
+        List<ResourceChange> changes = changeRepository.findByVersionGreaterThanOrderByVersionAsc(since,
+                Limit.of(pageSize));
+        if (changes.isEmpty()) {
+            return new ResourceChanges(since, since, false, List.of(), List.of());
+        }
+
+        // Only the latest entry per resource matters
+        Map<Long, Boolean> latest = new LinkedHashMap<>();
+        changes.forEach(c -> {
+            latest.remove(c.getResourceId());
+            latest.put(c.getResourceId(), c.isDeleted());
+        });
+        List<Long> upsertIds = latest.entrySet().stream().filter(e -> !e.getValue()).map(Map.Entry::getKey).toList();
+        Map<Long, WellnessResource> current = resourceRepository.findAllById(upsertIds).stream()
+                .collect(Collectors.toMap(WellnessResource::getId, Function.identity()));
+
+        List<WellnessResource> upserts = new ArrayList<>(current.size());
+        List<Long> deleted = new ArrayList<>();
+        latest.forEach((resourceId, tombstone) -> {
+            WellnessResource resource = tombstone ? null : current.get(resourceId);
+            if (resource != null) {
+                upserts.add(resource);
+            } else {
+                // Deleted, possibly by a change after this page; its tombstone follows later too
+                deleted.add(resourceId);
+            }
+        });
+        long version = changes.get(changes.size() - 1).getVersion();
+        return new ResourceChanges(since, version, changes.size() == pageSize, upserts, deleted);
+    }
+
+    /** Drops entries older than the retention. Idempotent, so replicas need not coordinate. */
+    @Scheduled(fixedDelayString = "${wellness.resources.changes.prune-interval:1h}",
+            initialDelayString = "${wellness.resources.changes.prune-interval:1h}")
+    @Transactional
+    public void prune() {
+        Long through = changeRepository.findLastVersionBefore(Instant.now().minus(retention));
+        if (through == null) {
+            return;
+        }
+        // Same transaction: readers never see the entries gone without the raised watermark
+        changeRepository.markPrunedThrough(through);
+        int removed = changeRepository.deleteThrough(through);
+        logger.info("Pruned {} resource change log entries through version {}", removed, through);
+    }
+
+    /** Thrown when the requested version is older than the retained change log. */
+    public static class ChangesExpiredException extends RuntimeException {
+        public ChangesExpiredException(long since) {
+            super("Changes since version " + since + " are no longer retained; take a new snapshot");
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ca.gbc.comp3095.wellnessresourceservice.service;
+
+import ca.gbc.comp3095.wellnessresourceservice.dto.ResourceChangeEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Broadcasts committed change log entries to every replica's {@link ResourceChangeStream}
+ * over Redis pub/sub, one JSON array message per transaction.
+ */
+@Component
+public class ResourceChangePublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceChangePublisher.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+
+    public ResourceChangePublisher(StringRedisTemplate redisTemplate,
+                                   ObjectMapper objectMapper,
+                                   @Value("${wellness.resources.changes.channel:wellness:resources:changes}") String channel) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+    }
+
+    public void publish(List<ResourceChangeEvent> events) {
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(events));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // Stream subscribers still get these from the change log when they next resume
+            logger.warn("Failed to publish {} resource changes: {}", events.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package ca.gbc.comp3095.wellnessresourceservice.service;
+
+import ca.gbc.comp3095.wellnessresourceservice.config.DataSourceRouting;
+import ca.gbc.comp3095.wellnessresourceservice.dto.ResourceChangeEvent;
+import ca.gbc.comp3095.wellnessresourceservice.model.ResourceChange;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Live feed of resource changes for the SSE endpoint.
+ *
+ * Every replica receives each committed change over Redis pub/sub (see
+ * {@link ResourceChangePublisher}) and fans it out to its own subscribers. A subscriber
+ * resuming from a version first gets the missed entries from the change log, then the live
+ * feed; it is subscribed to the live feed before the replay starts, so nothing committed in
+ * between is lost. A subscriber that falls more than the buffer size behind is disconnected
+ * and resumes from its last event id on reconnect.
+ */
+@Service
+public class ResourceChangeStream implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceChangeStream.class);
+
+    private static final int REPLAY_PAGE_SIZE = 500;
+
+    private final ResourceChangeLog changeLog;
+    private final ObjectReader eventsReader;
+    private final int subscriberBuffer;
+    private final Sinks.Many<ResourceChangeEvent> hub = Sinks.many().multicast().directBestEffort();
+    private final Lock emitLock = new ReentrantLock();
+
+    public ResourceChangeStream(ResourceChangeLog changeLog,
+                                ObjectMapper objectMapper,
+                                @Value("${wellness.resources.changes.stream.buffer:1024}") int subscriberBuffer) {
+        this.changeLog = changeLog;
+        this.eventsReader = objectMapper.readerFor(new TypeReference<List<ResourceChangeEvent>>() { });
+        this.subscriberBuffer = subscriberBuffer;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        List<ResourceChangeEvent> events;
+        try {
+            events = eventsReader.readValue(message.getBody());
+        } catch (IOException e) {
+            logger.warn("Ignoring malformed resource change message: {}", e.getMessage());
+            return;
+        }
+        // Sinks need serialized emission; the listener container may deliver on several threads.
+        // A lock rather than synchronized, which would pin a virtual thread while it waits
+        emitLock.lock();
+        try {
+            events.forEach(this::emit);
+        } finally {
+            emitLock.unlock();
+        }
+    }
+
+    private void emit(ResourceChangeEvent event) {
+        Sinks.EmitResult result = hub.tryEmitNext(event);
+        // No subscribers on this replica is the normal idle case, not a lost event
+        if (result.isFailure() && result != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            logger.warn("Resource change {} not delivered to live subscribers: {}", event.getVersion(), result);
+        }
+    }
+
+    /**
+     * Throws {@link ResourceChangeLog.ChangesExpiredException} if a subscriber cannot resume
+     * from {@code since}. Checked on the primary, like the replay: a lagging replica's
+     * watermark could let through a version whose entries are already pruned.
+     */
+    public void checkResumable(long since) {
+        DataSourceRouting.onPrimary(() -> {
+            changeLog.checkRetained(since);
+            return null;
+        });
+    }
+
+    /**
+     * Changes as they commit. With {@code since}, entries after that version are replayed
+     * from the change log first (the caller checks {@link #checkResumable}).
+     */
+    public Flux<ResourceChangeEvent> subscribe(Long since) {
+        Flux<ResourceChangeEvent> live = hub.asFlux().onBackpressureBuffer(subscriberBuffer);
+        if (since == null) {
+            return live;
+        }
+        return Flux.defer(() -> {
+            // Join the live feed first, holding its events until the replay is done
+            Sinks.Many<ResourceChangeEvent> pending = Sinks.many().unicast()
+                    .onBackpressureBuffer(Queues.<ResourceChangeEvent>get(subscriberBuffer).get());
+            Mono<ResourceChangeEvent> joined = live.doOnNext(e -> {
+                if (pending.tryEmitNext(e).isFailure()) {
+                    throw Exceptions.failWithOverflow("Change stream subscriber fell behind");
+                }
+            }).then(Mono.empty());
+            AtomicLong replayedThrough = new AtomicLong(since);
+            Flux<ResourceChangeEvent> caughtUp = replay(since)
+                    .doOnNext(e -> replayedThrough.set(e.getVersion()))
+                    .concatWith(pending.asFlux().filter(e -> e.getVersion() > replayedThrough.get()));
+            return Flux.merge(joined, caughtUp).doFinally(signal -> pending.tryEmitComplete());
+        });
+    }
+
+    private Flux<ResourceChangeEvent> replay(long since) {
+        return Mono.fromCallable(() -> entriesSince(since))
+                .expand(page -> page.size() < REPLAY_PAGE_SIZE ? Mono.empty()
+                        : Mono.fromCallable(() -> entriesSince(lastVersion(page))))
+                .flatMapIterable(page -> page.stream().map(ResourceChangeEvent::of).toList())
+                // Change log reads block on JDBC
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // From the primary: an entry published before the subscriber joined the live feed but not
+    // yet on a lagging replica would be in neither the replay nor the feed
+    private List<ResourceChange> entriesSince(long since) {
+        return DataSourceRouting.onPrimary(() -> changeLog.entriesSince(since, REPLAY_PAGE_SIZE));
+    }
+
+    private static long lastVersion(List<ResourceChange> page) {
+        return page.get(page.size() - 1).getVersion();
+    }
+}
@@ -0,0 +1,154 @@
+package ca.gbc.comp3095.wellnessresourceservice.service;
+
+import ca.gbc.comp3095.wellnessresourceservice.config.DataSourceRouting;
+import ca.gbc.comp3095.wellnessresourceservice.repository.CategoryCount;
+import ca.gbc.comp3095.wellnessresourceservice.repository.WellnessResourceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Resource counts per category, kept in a Redis hash shared by all replicas.
+ *
+ * Writes adjust the counters with HINCRBY; the facets endpoint only reads the hash.
+ * A periodic GROUP BY rebuilds the hash (written to a temporary key, then renamed over
+ * the live one) to correct any drift from failed increments.
+ *
+ * Every rebuild writes a marker field. Increments apply only while it is present, so a
+ * hash lost to a Redis flush or restart is not recreated holding just the latest deltas;
+ * a hash without the marker is rebuilt on first read.
+ */
+@Service
+public class ResourceFacetService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceFacetService.class);
+
+    private static final String KEY = "wellness:resources:facets";
+    private static final String RECONCILE_LOCK = "wellness:resources:facets:reconcile";
+    // Not a valid count, so never mistaken for a category's
+    private static final String BUILT_FIELD = "#built";
+    // KEYS[1] = hash, ARGV = marker field, then category/delta pairs
+    private static final RedisScript<Long> INCREMENT_IF_BUILT = new DefaultRedisScript<>(
+            "if redis.call('hexists', KEYS[1], ARGV[1]) == 0 then return 0 end "
+                    + "for i = 2, #ARGV, 2 do redis.call('hincrby', KEYS[1], ARGV[i], ARGV[i + 1]) end "
+                    + "return 1",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final WellnessResourceRepository repository;
+    private final Duration reconcileInterval;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public ResourceFacetService(StringRedisTemplate redisTemplate,
+                                WellnessResourceRepository repository,
+                                @Value("${wellness.resources.facets.reconcile-interval:10m}") Duration reconcileInterval) {
+        this.redisTemplate = redisTemplate;
+        this.repository = repository;
+        this.reconcileInterval = reconcileInterval;
+    }
+
+    /** Category counts, alphabetically; categories without resources are left out. */
+    public SortedMap<String, Long> counts() {
+        Map<Object, Object> raw = redisTemplate.opsForHash().entries(KEY);
+        if (!raw.containsKey(BUILT_FIELD)) {
+            return reconcile();
+        }
+        SortedMap<String, Long> counts = new TreeMap<>();
+        raw.forEach((category, count) -> {
+            if (BUILT_FIELD.equals(category)) {
+                return;
+            }
+            long value = Long.parseLong((String) count);
+            if (value > 0) {
+                counts.put((String) category, value);
+            }
+        });
+        return counts;
+    }
+
+    /** Resource moved from one category to another; either side may be null. */
+    public void moved(String fromCategory, String toCategory) {
+        if (fromCategory != null && fromCategory.equals(toCategory)) {
+            return;
+        }
+        Map<String, Long> deltas = new HashMap<>();
+        if (fromCategory != null) {
+            deltas.merge(fromCategory, -1L, Long::sum);
+        }
+        if (toCategory != null) {
+            deltas.merge(toCategory, 1L, Long::sum);
+        }
+        apply(deltas);
+    }
+
+    /**
+     * Applies many counter changes in one round trip (bulk writes). Skipped while the hash
+     * is not built; the rebuild on the next read counts them from the database.
+     */
+    public void apply(Map<String, Long> deltas) {
+        List<String> args = new ArrayList<>();
+        args.add(BUILT_FIELD);
+        deltas.forEach((category, delta) -> {
+            if (delta != 0) {
+                args.add(category);
+                args.add(String.valueOf(delta));
+            }
+        });
+        if (args.size() == 1) {
+            return;
+        }
+        try {
+            redisTemplate.execute(INCREMENT_IF_BUILT, List.of(KEY), args.toArray());
+        } catch (RuntimeException e) {
+            // The next reconciliation corrects the counts
+            logger.warn("Could not update category facets: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${wellness.resources.facets.reconcile-interval:10m}",
+            initialDelayString = "${wellness.resources.facets.reconcile-interval:10m}")
+    public void scheduledReconcile() {
+        // One replica per interval is enough
+        Boolean claimed = redisTemplate.opsForValue().setIfAbsent(RECONCILE_LOCK, instanceId, reconcileInterval);
+        if (Boolean.TRUE.equals(claimed)) {
+            try {
+                reconcile();
+            } catch (RuntimeException e) {
+                logger.warn("Category facet reconciliation failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the counters from the database. Increments landing between the GROUP BY
+     * and the rename are lost until the next run, which is the accepted drift window.
+     */
+    public SortedMap<String, Long> reconcile() {
+        List<CategoryCount> rows = DataSourceRouting.onPrimary(repository::countByCategory);
+        SortedMap<String, Long> counts = new TreeMap<>();
+        rows.forEach(row -> counts.put(row.getCategory(), row.getCount()));
+
+        String tempKey = KEY + ":rebuild:" + instanceId;
+        Map<String, String> fields = new HashMap<>();
+        counts.forEach((category, count) -> fields.put(category, String.valueOf(count)));
+        // Also with no categories at all: an empty but built hash takes increments
+        fields.put(BUILT_FIELD, "1");
+        redisTemplate.opsForHash().putAll(tempKey, fields);
+        redisTemplate.rename(tempKey, KEY);
+        return counts;
+    }
+}
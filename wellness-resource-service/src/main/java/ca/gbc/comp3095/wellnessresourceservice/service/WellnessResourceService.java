@@ -0,0 +1,432 @@
+package ca.gbc.comp3095.wellnessresourceservice.service;
+
+import ca.gbc.comp3095.wellnessresourceservice.cache.ResourceAccessStats;
+import ca.gbc.comp3095.wellnessresourceservice.cache.ResourceCacheKeys;
+import ca.gbc.comp3095.wellnessresourceservice.cache.ResourceVersions;
+import ca.gbc.comp3095.wellnessresourceservice.cache.TwoTierCache;
+import ca.gbc.comp3095.wellnessresourceservice.config.DataSourceRouting;
+import ca.gbc.comp3095.wellnessresourceservice.dto.ResourceListBody;
+import ca.gbc.comp3095.wellnessresourceservice.dto.ResourcePage;
+import ca.gbc.comp3095.wellnessresourceservice.dto.VersionedResources;
+import ca.gbc.comp3095.wellnessresourceservice.model.EventResourceLink;
+import ca.gbc.comp3095.wellnessresourceservice.model.WellnessResource;
+import ca.gbc.comp3095.wellnessresourceservice.repository.EventResourceLinkRepository;
+import ca.gbc.comp3095.wellnessresourceservice.repository.WellnessResourceRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Read-through / write-through access to wellness resources.
+ *
+ * Writes update the per-id entry in place and evict only the list entries the change
+ * affects (the "all" list, the resource's category and, when a resource moves, its
+ * previous category, plus the lists of the events it is linked to) instead of clearing
+ * the whole cache, then bump those lists' versions (see {@link ResourceVersions}).
+ *
+ * Cache loads always read the primary: a lagging replica would otherwise be cached for
+ * the entry's whole TTL. Uncached reads (pages, search, export) may use the replica.
+ *
+ * Every create, update and delete is also recorded in the {@link ResourceChangeLog}
+ * within the same transaction.
+ *
+ * Lists are cached as their serialized JSON ({@link ResourceListBody}), so a cache hit
+ * is written to the response as bytes; the {@code *Versioned} methods decode it for
+ * in-process callers.
+ */
+@Service
+public class WellnessResourceService {
+
+    private final WellnessResourceRepository repository;
+    private final EventResourceLinkRepository linkRepository;
+    private final Cache cache;
+    private final ResourceVersions versions;
+    private final ResourceAccessStats accessStats;
+    private final ResourceFacetService facets;
+    private final KnownCategories knownCategories;
+    private final ResourceChangeLog changeLog;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectWriter resourceWriter;
+    private final ObjectWriter listWriter;
+    private final ObjectReader listReader;
+    private final int maxPageSize;
+    private final int maxSearchLimit;
+    private final int listGzipThreshold;
+
+    public WellnessResourceService(WellnessResourceRepository repository,
+                                   EventResourceLinkRepository linkRepository,
+                                   CacheManager cacheManager,
+                                   ResourceVersions versions,
+                                   ResourceAccessStats accessStats,
+                                   ResourceFacetService facets,
+                                   KnownCategories knownCategories,
+                                   ResourceChangeLog changeLog,
+                                   TransactionTemplate transactionTemplate,
+                                   EntityManager entityManager,
+                                   ObjectMapper objectMapper,
+                                   @Value("${wellness.resources.page.max-size:200}") int maxPageSize,
+                                   @Value("${wellness.resources.search.max-limit:50}") int maxSearchLimit,
+                                   @Value("${wellness.resources.list.gzip-threshold:1024}") int listGzipThreshold) {
+        this.repository = repository;
+        this.linkRepository = linkRepository;
+        this.cache = cacheManager.getCache(ResourceCacheKeys.CACHE_NAME);
+        this.versions = versions;
+        this.accessStats = accessStats;
+        this.facets = facets;
+        this.knownCategories = knownCategories;
+        this.changeLog = changeLog;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.resourceWriter = objectMapper.writerFor(WellnessResource.class);
+        TypeReference<List<WellnessResource>> listType = new TypeReference<>() { };
+        this.listWriter = objectMapper.writerFor(listType);
+        this.listReader = objectMapper.readerFor(listType);
+        this.maxPageSize = maxPageSize;
+        this.maxSearchLimit = maxSearchLimit;
+        this.listGzipThreshold = listGzipThreshold;
+    }
+
+    public List<WellnessResource> findAll() {
+        return findAllVersioned().getItems();
+    }
+
+    public VersionedResources findAllVersioned() {
+        return decode(findAllBody());
+    }
+
+    public ResourceListBody findAllBody() {
+        return readList(ResourceCacheKeys.all());
+    }
+
+    public List<WellnessResource> findByCategory(String category) {
+        return findByCategoryVersioned(category).getItems();
+    }
+
+    public VersionedResources findByCategoryVersioned(String category) {
+        return decode(findByCategoryBody(category));
+    }
+
+    public ResourceListBody findByCategoryBody(String category) {
+        String key = ResourceCacheKeys.category(category);
+        if (!knownCategories.mightExist(category)) {
+            // Never-written category: answer empty without a cache entry or a query
+            return toBody(versions.current(key), List.of());
+        }
+        return readList(key);
+    }
+
+    /** Resources linked to an event, from the link table's primary key index. */
+    public VersionedResources findByEventVersioned(Long eventId) {
+        return decode(findByEventBody(eventId));
+    }
+
+    public ResourceListBody findByEventBody(Long eventId) {
+        return readList(ResourceCacheKeys.event(eventId));
+    }
+
+    /** Links a resource to an event; linking twice is a no-op. Returns false if the resource does not exist. */
+    public boolean link(Long eventId, Long resourceId) {
+        if (!repository.existsById(resourceId)) {
+            return false;
+        }
+        EventResourceLink.Key key = new EventResourceLink.Key(eventId, resourceId);
+        if (!linkRepository.existsById(key)) {
+            linkRepository.save(new EventResourceLink(eventId, resourceId));
+            invalidateLists(Set.of(ResourceCacheKeys.event(eventId)));
+        }
+        return true;
+    }
+
+    public void unlink(Long eventId, Long resourceId) {
+        EventResourceLink.Key key = new EventResourceLink.Key(eventId, resourceId);
+        if (linkRepository.existsById(key)) {
+            linkRepository.deleteById(key);
+            invalidateLists(Set.of(ResourceCacheKeys.event(eventId)));
+        }
+    }
+
+    private ResourceListBody readList(String listKey) {
+        accessStats.record(listKey);
+        return cachedList(listKey);
+    }
+
+    /** Read-through lookup of a list key without counting it as a client access (used by warm-up). */
+    public ResourceListBody cachedList(String listKey) {
+        Object cached;
+        try {
+            cached = cache.<Object>get(listKey, () -> loadList(listKey));
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof ListChangedDuringLoad changed) {
+                return changed.body;
+            }
+            throw e;
+        }
+        if (cached instanceof ResourceListBody body) {
+            return body;
+        }
+        // Entry written before lists were cached as JSON: replace it rather than flushing Redis
+        ResourceListBody body = loadList(listKey);
+        cache.put(listKey, body);
+        return body;
+    }
+
+    /**
+     * Loads a list for the cache. If a write changed the list's version during the load, the
+     * rows may predate that write and its eviction has already run, so caching them would
+     * serve them until the TTL: the body goes back to the caller through
+     * {@link ListChangedDuringLoad} instead, which the cache does not store.
+     */
+    private ResourceListBody loadList(String listKey) {
+        // Capture the version before loading so the list is never newer-labelled than its content
+        String version = versions.current(listKey);
+        ResourceListBody body = toBody(version, DataSourceRouting.onPrimary(() -> queryList(listKey)));
+        if (!version.equals(versions.current(listKey))) {
+            throw new ListChangedDuringLoad(body);
+        }
+        return body;
+    }
+
+    /**
+     * Reloads a list and overwrites its cache entry, so readers keep hitting the old entry
+     * until the new one replaces it. Returns false without caching if a write changed the
+     * list's version during the reload; that write's eviction takes precedence.
+     */
+    public boolean refreshList(String listKey) {
+        String version = versions.current(listKey);
+        List<WellnessResource> items = DataSourceRouting.onPrimary(() -> queryList(listKey));
+        if (!version.equals(versions.current(listKey))) {
+            return false;
+        }
+        cache.put(listKey, toBody(version, items));
+        return true;
+    }
+
+    private ResourceListBody toBody(String version, List<WellnessResource> items) {
+        try {
+            return ResourceListBody.of(version, items.size(), listWriter.writeValueAsBytes(items), listGzipThreshold);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serialize resource list " + version, e);
+        }
+    }
+
+    private VersionedResources decode(ResourceListBody list) {
+        try {
+            return new VersionedResources(list.getVersion(), listReader.readValue(list.json()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode resource list " + list.getVersion(), e);
+        }
+    }
+
+    private List<WellnessResource> queryList(String listKey) {
+        String category = ResourceCacheKeys.categoryOf(listKey);
+        if (category != null) {
+            return repository.findByCategory(category);
+        }
+        Long eventId = ResourceCacheKeys.eventOf(listKey);
+        return eventId != null ? linkRepository.findResourcesByEventId(eventId) : repository.findAll();
+    }
+
+    /** Current version of a list, for answering If-None-Match without loading it. */
+    public String currentVersion(String listKey) {
+        return versions.current(listKey);
+    }
+
+    /**
+     * Keyset page ordered by id. Pages are not cached: each one is a single index range
+     * scan, and caching them would multiply the entries every write has to invalidate.
+     */
+    public ResourcePage findPage(Long cursor, int size, String category) {
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        long after = cursor != null ? cursor : 0L;
+        // Fetch one extra row to know whether another page exists
+        Limit limit = Limit.of(pageSize + 1);
+        List<WellnessResource> rows = (category != null && !category.isEmpty())
+                ? repository.findByCategoryAndIdGreaterThanOrderByIdAsc(category, after, limit)
+                : repository.findByIdGreaterThanOrderByIdAsc(after, limit);
+
+        if (rows.size() <= pageSize) {
+            return new ResourcePage(rows, null, rows.size());
+        }
+        List<WellnessResource> items = rows.subList(0, pageSize);
+        return new ResourcePage(items, items.get(pageSize - 1).getId(), pageSize);
+    }
+
+    /**
+     * Ranked substring search over title and description. Results are not cached; the
+     * trigram indexes keep each query to an index scan over the matching rows.
+     */
+    public List<WellnessResource> search(String query, int limit) {
+        String q = query.trim();
+        String escaped = escapeLike(q);
+        return repository.search(q, "%" + escaped + "%", escaped + "%",
+                Math.max(1, Math.min(limit, maxSearchLimit)));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Writes every resource to {@code out} as newline-delimited JSON without materializing
+     * the table: rows come from a cursor and are detached as soon as they are written.
+     */
+    @Transactional(readOnly = true)
+    public void exportNdjson(OutputStream out) throws IOException {
+        JsonGenerator generator = resourceWriter.createGenerator(out);
+        try (Stream<WellnessResource> rows = repository.streamAllOrderedById()) {
+            Iterator<WellnessResource> it = rows.iterator();
+            while (it.hasNext()) {
+                WellnessResource resource = it.next();
+                resourceWriter.writeValue(generator, resource);
+                generator.writeRaw('\n');
+                entityManager.detach(resource);
+            }
+        }
+        generator.flush();
+    }
+
+    public Optional<WellnessResource> findById(Long id) {
+        return Optional.ofNullable(cache.get(ResourceCacheKeys.id(id),
+                () -> DataSourceRouting.onPrimary(() -> repository.findById(id).orElse(null))));
+    }
+
+    /**
+     * Resolves many ids at once from the per-id cache entries (one Redis MGET for the L1
+     * misses), loads the remaining ids with a single query and back-fills them, ids that
+     * do not exist included. Results follow the order of {@code ids}; unknown ids are left out.
+     */
+    public List<WellnessResource> findAllById(Collection<Long> ids) {
+        Map<String, Long> idsByKey = new LinkedHashMap<>();
+        ids.forEach(id -> idsByKey.put(ResourceCacheKeys.id(id), id));
+        if (!(cache instanceof TwoTierCache twoTierCache)) {
+            return idsByKey.values().stream().map(this::findById).flatMap(Optional::stream).toList();
+        }
+
+        Map<String, Object> found = new HashMap<>(twoTierCache.getAll(idsByKey.keySet()));
+        List<Long> missing = idsByKey.entrySet().stream()
+                .filter(e -> !found.containsKey(e.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+        if (!missing.isEmpty()) {
+            Map<String, Object> loaded = new HashMap<>();
+            missing.forEach(id -> loaded.put(ResourceCacheKeys.id(id), null));
+            DataSourceRouting.onPrimary(() -> repository.findAllById(missing))
+                    .forEach(r -> loaded.put(ResourceCacheKeys.id(r.getId()), r));
+            twoTierCache.putAll(loaded);
+            found.putAll(loaded);
+        }
+
+        List<WellnessResource> resources = new ArrayList<>(idsByKey.size());
+        for (String key : idsByKey.keySet()) {
+            if (found.get(key) instanceof WellnessResource resource) {
+                resources.add(resource);
+            }
+        }
+        return resources;
+    }
+
+    public WellnessResource create(WellnessResource resource) {
+        WellnessResource saved = transactionTemplate.execute(status -> {
+            WellnessResource created = repository.save(resource);
+            changeLog.recordUpserts(List.of(created));
+            return created;
+        });
+        writeThrough(saved, null);
+        facets.moved(null, saved.getCategory());
+        return saved;
+    }
+
+    public WellnessResource update(Long id, WellnessResource resource) {
+        String previousCategory = repository.findById(id)
+                .map(WellnessResource::getCategory)
+                .orElse(null);
+        resource.setId(id);
+        WellnessResource saved = transactionTemplate.execute(status -> {
+            WellnessResource updated = repository.save(resource);
+            changeLog.recordUpserts(List.of(updated));
+            return updated;
+        });
+        writeThrough(saved, previousCategory);
+        facets.moved(previousCategory, saved.getCategory());
+        return saved;
+    }
+
+    public void delete(Long id) {
+        Optional<WellnessResource> existing = repository.findById(id);
+        List<Long> eventIds = linkRepository.findEventIdsByResourceIdIn(List.of(id));
+        transactionTemplate.executeWithoutResult(status -> {
+            linkRepository.deleteByResourceId(id);
+            repository.deleteById(id);
+            existing.ifPresent(changeLog::recordDelete);
+        });
+
+        cache.evict(ResourceCacheKeys.id(id));
+        Set<String> listKeys = new LinkedHashSet<>();
+        listKeys.add(ResourceCacheKeys.all());
+        existing.ifPresent(r -> {
+            listKeys.add(ResourceCacheKeys.category(r.getCategory()));
+            facets.moved(r.getCategory(), null);
+        });
+        eventIds.forEach(eventId -> listKeys.add(ResourceCacheKeys.event(eventId)));
+        invalidateLists(listKeys);
+    }
+
+    private void writeThrough(WellnessResource saved, String previousCategory) {
+        cache.put(ResourceCacheKeys.id(saved.getId()), saved);
+        knownCategories.add(saved.getCategory());
+        Set<String> listKeys = new LinkedHashSet<>();
+        listKeys.add(ResourceCacheKeys.all());
+        listKeys.add(ResourceCacheKeys.category(saved.getCategory()));
+        if (previousCategory != null) {
+            listKeys.add(ResourceCacheKeys.category(previousCategory));
+            // Only an existing resource can already be linked to events
+            linkRepository.findEventIdsByResourceIdIn(List.of(saved.getId()))
+                    .forEach(eventId -> listKeys.add(ResourceCacheKeys.event(eventId)));
+        }
+        invalidateLists(listKeys);
+    }
+
+    private void invalidateLists(Set<String> listKeys) {
+        // Before the evictions: a load already under way sees its version change and is not cached
+        versions.bump(listKeys);
+        listKeys.forEach(cache::evict);
+        // And after: a reader that sees the final version must not find the old list
+        versions.bump(listKeys);
+    }
+
+    /** Carries a list loaded while its version changed, to be returned but not cached. */
+    private static final class ListChangedDuringLoad extends RuntimeException {
+        private final transient ResourceListBody body;
+
+        ListChangedDuringLoad(ResourceListBody body) {
+            super("List " + body.getVersion() + " changed while loading", null, false, false);
+            this.body = body;
+        }
+    }
+}
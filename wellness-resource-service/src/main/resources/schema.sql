@@ -0,0 +1,26 @@
+-- Runs after Hibernate's ddl-auto (spring.jpa.defer-datasource-initialization=true),
+-- so every statement here must be idempotent.
+
+-- Trigram indexes back substring/prefix search on title and description (ILIKE '%q%')
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_wellness_resource_title_trgm
+    ON wellness_resource USING gin (title gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_wellness_resource_description_trgm
+    ON wellness_resource USING gin (description gin_trgm_ops);
+
+-- Ids moved from IDENTITY to a pooled sequence (allocationSize = 50). The pooled optimizer
+-- never hands out an id above the sequence's last_value, so an id past it can only come
+-- from before the switch (or an explicit insert): realign once, then leave the sequence
+-- alone so no restart can re-issue a block another replica already took.
+SELECT setval('wellness_resource_seq', (SELECT MAX(id) FROM wellness_resource) + 50)
+WHERE (SELECT COALESCE(MAX(id), 0) FROM wellness_resource) > (SELECT last_value FROM wellness_resource_seq);
+
+-- Change log clock: one row whose version is advanced by every resource write. Writers hold
+-- its row lock until commit, so change log versions commit in order. pruned_through is the
+-- highest version removed by retention; deltas from before it need a new snapshot.
+CREATE TABLE IF NOT EXISTS resource_change_clock (
+    id             INT PRIMARY KEY,
+    version        BIGINT NOT NULL,
+    pruned_through BIGINT NOT NULL
+);
+INSERT INTO resource_change_clock (id, version, pruned_through) VALUES (1, 0, 0) ON CONFLICT DO NOTHING;
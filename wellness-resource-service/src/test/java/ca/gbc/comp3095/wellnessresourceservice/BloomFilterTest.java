@@ -0,0 +1,32 @@
+package ca.gbc.comp3095.wellnessresourceservice;
+
+import ca.gbc.comp3095.wellnessresourceservice.cache.BloomFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void shouldHaveNoFalseNegativesAndBoundedFalsePositives() {
+        // GIVEN
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filter.add("category-" + i);
+        }
+
+        // THEN: every added value is found
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(filter.mightContain("category-" + i)).isTrue();
+        }
+
+        // AND: unknown values are mostly rejected (1% target, generous bound)
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("unknown-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(300);
+    }
+}
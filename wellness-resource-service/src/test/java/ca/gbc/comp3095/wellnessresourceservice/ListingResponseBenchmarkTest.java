@@ -0,0 +1,134 @@
+package ca.gbc.comp3095.wellnessresourceservice;
+
+import ca.gbc.comp3095.wellnessresourceservice.cache.ResourceCacheCodec;
+import ca.gbc.comp3095.wellnessresourceservice.dto.ResourceListBody;
+import ca.gbc.comp3095.wellnessresourceservice.dto.VersionedResources;
+import ca.gbc.comp3095.wellnessresourceservice.model.WellnessResource;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Per-request cost of answering a resource listing from a Redis hit, before and after
+ * lists were cached as response JSON: decoding the entry plus writing the response body.
+ * Allocation and CPU are measured on the calling thread and logged; only the allocation
+ * ordering is asserted since absolute numbers depend on the machine. The measurement is
+ * tagged benchmark and runs with {@code gradle benchmark}.
+ */
+class ListingResponseBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListingResponseBenchmarkTest.class);
+
+    private static final int ITERATIONS = 2_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ResourceCacheCodec codec = new ResourceCacheCodec(ResourceCacheCodec.Format.SMILE, 2048,
+            new SimpleMeterRegistry());
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    @Tag("benchmark")
+    void cachedJsonBodyShouldAllocateLessPerRequestThanReserializing() throws IOException {
+        // GIVEN: the same 500-resource list as the old and the new Redis entry
+        List<WellnessResource> items = sampleItems(500);
+        byte[] json = objectMapper.writeValueAsBytes(items);
+        byte[] before = codec.serialize(new VersionedResources("1700000000000-500", items));
+        byte[] after = codec.serialize(ResourceListBody.of("1700000000000-500", items.size(), json, 1024));
+
+        // WHEN
+        Cost reserialized = measure(() -> {
+            VersionedResources list = (VersionedResources) codec.deserialize(before);
+            respond(objectMapper.writeValueAsBytes(list.getItems()));
+        });
+        Cost cachedBody = measure(() -> respond(((ResourceListBody) codec.deserialize(after)).getBody()));
+        Cost gunzippedBody = measure(() -> respond(((ResourceListBody) codec.deserialize(after)).json()));
+
+        // THEN
+        logger.info("before (decode + serialize) {} B/req {} us/req", reserialized.bytes, reserialized.micros);
+        logger.info("after  (decode, gzip as-is) {} B/req {} us/req", cachedBody.bytes, cachedBody.micros);
+        logger.info("after  (decode, gunzipped)  {} B/req {} us/req", gunzippedBody.bytes, gunzippedBody.micros);
+        assertThat(cachedBody.bytes)
+                .as("allocated per request: cached body %s vs reserialized %s", cachedBody, reserialized)
+                .isLessThan(reserialized.bytes);
+    }
+
+    @Test
+    void gzippedBodyShouldDecodeToTheOriginalList() throws IOException {
+        // GIVEN
+        List<WellnessResource> items = sampleItems(50);
+        byte[] json = objectMapper.writeValueAsBytes(items);
+
+        // WHEN
+        ResourceListBody list = (ResourceListBody) codec.deserialize(
+                codec.serialize(ResourceListBody.of("v1", items.size(), json, 1024)));
+
+        // THEN
+        assertThat(list.isGzipped()).isTrue();
+        assertThat(list.getBody().length).isLessThan(json.length);
+        assertThat(objectMapper.readValue(list.json(), new TypeReference<List<WellnessResource>>() { }))
+                .isEqualTo(items);
+    }
+
+    @Test
+    void smallBodyShouldNotBeGzipped() throws IOException {
+        // GIVEN
+        byte[] json = objectMapper.writeValueAsBytes(sampleItems(1));
+
+        // WHEN
+        ResourceListBody list = ResourceListBody.of("v1", 1, json, 1024);
+
+        // THEN
+        assertThat(list.isGzipped()).isFalse();
+        assertThat(list.json()).isEqualTo(json);
+    }
+
+    private Cost measure(Request request) throws IOException {
+        for (int i = 0; i < ITERATIONS / 4; i++) {
+            request.run();
+        }
+        long allocatedStart = threads.getCurrentThreadAllocatedBytes();
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            request.run();
+        }
+        long cpuNanos = threads.getCurrentThreadCpuTime() - cpuStart;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedStart;
+        return new Cost(allocated / ITERATIONS, cpuNanos / ITERATIONS / 1000);
+    }
+
+    // Stands in for the servlet output stream
+    private static void respond(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length);
+        out.writeBytes(body);
+    }
+
+    private interface Request {
+        void run() throws IOException;
+    }
+
+    private record Cost(long bytes, long micros) { }
+
+    private static List<WellnessResource> sampleItems(int size) {
+        List<WellnessResource> items = new ArrayList<>();
+        for (long i = 1; i <= size; i++) {
+            items.add(new WellnessResource(i, "Resource " + i,
+                    "Guided session number " + i + " covering breathing, sleep and stress management",
+                    i % 2 == 0 ? "mindfulness" : "fitness",
+                    "https://wellness.example.com/resources/" + i));
+        }
+        return items;
+    }
+}
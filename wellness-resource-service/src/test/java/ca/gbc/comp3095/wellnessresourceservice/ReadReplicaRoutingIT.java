@@ -0,0 +1,162 @@
+package ca.gbc.comp3095.wellnessresourceservice;
+
+import ca.gbc.comp3095.wellnessresourceservice.config.DataSourceRouting;
+import ca.gbc.comp3095.wellnessresourceservice.model.WellnessResource;
+import ca.gbc.comp3095.wellnessresourceservice.repository.WellnessResourceRepository;
+import ca.gbc.comp3095.wellnessresourceservice.service.ResourceChangeLog;
+import ca.gbc.comp3095.wellnessresourceservice.service.ResourceChangeStream;
+import ca.gbc.comp3095.wellnessresourceservice.service.WellnessResourceService;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.test.StepVerifier;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Read/write routing against two independent Postgres containers standing in for a
+ * primary and its replica. They are deliberately not replicated, so the rows a query
+ * returns show which one served it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+class ReadReplicaRoutingIT {
+
+    @Container
+    static PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:14-alpine")
+            .withDatabaseName("wellnessdb")
+            .withUsername("postgres")
+            .withPassword("password");
+
+    @Container
+    static PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:14-alpine")
+            .withDatabaseName("wellnessdb")
+            .withUsername("postgres")
+            .withPassword("password");
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:alpine"))
+            .withExposedPorts(6379);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WellnessResourceRepository repository;
+
+    @Autowired
+    private WellnessResourceService resourceService;
+
+    @Autowired
+    private ResourceChangeLog changeLog;
+
+    @Autowired
+    private ResourceChangeStream changeStream;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("wellness.datasource.replica.url", replica::getJdbcUrl);
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379).toString());
+    }
+
+    @BeforeAll
+    static void seedReplica() throws Exception {
+        try (Connection connection = DriverManager.getConnection(
+                replica.getJdbcUrl(), replica.getUsername(), replica.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE wellness_resource (id bigint PRIMARY KEY, title varchar(255), "
+                    + "description varchar(255), category varchar(255), url varchar(255))");
+            statement.execute("INSERT INTO wellness_resource (id, title, category) VALUES (1, 'Replica Resource', 'sleep')");
+            // A replica that has not caught up with any change log entry yet
+            statement.execute("CREATE TABLE resource_change (version bigint PRIMARY KEY, resource_id bigint NOT NULL, "
+                    + "category varchar(255), deleted boolean NOT NULL, changed_at timestamp with time zone NOT NULL)");
+            statement.execute("CREATE TABLE resource_change_clock (id int PRIMARY KEY, version bigint NOT NULL, "
+                    + "pruned_through bigint NOT NULL)");
+            statement.execute("INSERT INTO resource_change_clock VALUES (1, 0, 0)");
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        WellnessResource resource = new WellnessResource();
+        resource.setTitle("Primary Resource");
+        resource.setCategory("sleep");
+        repository.save(resource);
+    }
+
+    @Test
+    void shouldServeReadOnlyQueriesFromReplicaUnlessPrimaryIsForced() {
+        // WHEN / THEN: plain read-only query goes to the replica
+        assertThat(resourceService.findPage(null, 10, null).getItems())
+                .extracting(WellnessResource::getTitle).containsExactly("Replica Resource");
+
+        // WHEN / THEN: forced reads see the primary
+        assertThat(DataSourceRouting.onPrimary(() -> resourceService.findPage(null, 10, null)).getItems())
+                .extracting(WellnessResource::getTitle).containsExactly("Primary Resource");
+    }
+
+    @Test
+    void shouldReadOwnWritesFromPrimaryAfterMutation() throws Exception {
+        // GIVEN: a write through the API hands the client a read-your-writes cookie
+        MvcResult write = mockMvc.perform(post("/api/resources")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Written Resource\",\"category\":\"sleep\"}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Cookie cookie = write.getResponse().getCookie("wellness-ryw");
+        assertThat(cookie).isNotNull();
+
+        // THEN: that client reads the primary, everyone else the replica
+        mockMvc.perform(get("/api/resources").param("size", "10").cookie(cookie))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Written Resource")));
+        mockMvc.perform(get("/api/resources").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Replica Resource")));
+    }
+
+    @Test
+    void shouldReplayChangeStreamFromPrimaryWhenReplicaLags() {
+        // GIVEN: a change committed (and published) before the subscriber connects, not yet on the replica
+        long since = DataSourceRouting.onPrimary(() -> changeLog.snapshot().getVersion());
+        WellnessResource created = resourceService.create(new WellnessResource(null, "Lagging Resource", null, "sleep", null));
+
+        // WHEN / THEN: the resume check and the replay both see it
+        changeStream.checkResumable(since);
+        StepVerifier.create(changeStream.subscribe(since))
+                .assertNext(e -> assertThat(e.getResourceId()).isEqualTo(created.getId()))
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+}
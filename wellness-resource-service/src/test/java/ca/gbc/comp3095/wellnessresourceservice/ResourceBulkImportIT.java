@@ -0,0 +1,236 @@
+package ca.gbc.comp3095.wellnessresourceservice;
+
+import ca.gbc.comp3095.wellnessresourceservice.cache.CacheInvalidationPublisher;
+import ca.gbc.comp3095.wellnessresourceservice.cache.ResourceCacheKeys;
+import ca.gbc.comp3095.wellnessresourceservice.dto.BulkImportResult;
+import ca.gbc.comp3095.wellnessresourceservice.model.ResourceChange;
+import ca.gbc.comp3095.wellnessresourceservice.model.WellnessResource;
+import ca.gbc.comp3095.wellnessresourceservice.repository.WellnessResourceRepository;
+import ca.gbc.comp3095.wellnessresourceservice.service.ResourceBulkImportService;
+import ca.gbc.comp3095.wellnessresourceservice.service.ResourceChangeLog;
+import ca.gbc.comp3095.wellnessresourceservice.service.ResourceFacetService;
+import ca.gbc.comp3095.wellnessresourceservice.service.WellnessResourceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Bulk create/upsert through {@link ResourceBulkImportService}: both input formats,
+ * chunked commits (batch size 50), id allocation, and the cache, change log and facet
+ * side effects of each import.
+ */
+@SpringBootTest
+@Testcontainers
+class ResourceBulkImportIT {
+
+    private static final int BATCH_SIZE = 50;
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:alpine"))
+            .withExposedPorts(6379);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine")
+            .withDatabaseName("wellnessdb")
+            .withUsername("postgres")
+            .withPassword("password");
+
+    @Autowired
+    private ResourceBulkImportService importService;
+
+    @Autowired
+    private WellnessResourceService resourceService;
+
+    @Autowired
+    private WellnessResourceRepository repository;
+
+    @Autowired
+    private ResourceChangeLog changeLog;
+
+    @Autowired
+    private ResourceFacetService facetService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockitoSpyBean
+    private CacheInvalidationPublisher publisher;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        registry.add("spring.jpa.properties.hibernate.jdbc.batch_size", () -> String.valueOf(BATCH_SIZE));
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379).toString());
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        cacheManager.getCache(ResourceCacheKeys.CACHE_NAME).clear();
+        // Built (and empty), so imports are counted as deltas rather than by a rebuild
+        facetService.reconcile();
+    }
+
+    @Test
+    void shouldImportJsonArrayInChunksAndRecordEachRow() throws IOException {
+        // GIVEN: 120 new rows over two categories, one of them already cached as empty
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 120; i++) {
+            String category = i % 2 == 0 ? "bulk-a" : "bulk-b";
+            json.append(i == 0 ? "" : ",").append(row(null, "Array Resource " + i, category));
+        }
+        json.append("]");
+        assertThat(resourceService.findByCategory("bulk-a")).isEmpty();
+        long since = changeLog.snapshot().getVersion();
+        clearInvocations(publisher);
+
+        // WHEN
+        BulkImportResult result = importService.importResources(body(json.toString()));
+
+        // THEN: three chunks of at most 50 rows, all created
+        assertThat(result.getReceived()).isEqualTo(120);
+        assertThat(result.getCreated()).isEqualTo(120);
+        assertThat(result.getUpdated()).isZero();
+        assertThat(result.getBatches()).isEqualTo(3);
+        assertThat(repository.count()).isEqualTo(120);
+
+        // one change log entry per row
+        List<ResourceChange> entries = changeLog.entriesSince(since, 1000);
+        assertThat(entries).hasSize(120).noneMatch(ResourceChange::isDeleted);
+        assertThat(entries).extracting(ResourceChange::getResourceId)
+                .containsExactlyInAnyOrderElementsOf(repository.findAll().stream().map(WellnessResource::getId).toList());
+
+        // facets moved by the deltas, and the stale list was invalidated with one broadcast
+        assertThat(facetService.counts()).containsEntry("bulk-a", 60L).containsEntry("bulk-b", 60L);
+        verify(publisher, times(1)).publishEvict(eq(ResourceCacheKeys.CACHE_NAME), anyString());
+        assertThat(resourceService.findByCategory("bulk-a")).hasSize(60);
+    }
+
+    @Test
+    void shouldUpsertNdjsonByExistingIdAndInsertUnknownIds() throws IOException {
+        // GIVEN: one existing resource, updated and moved by the import
+        WellnessResource existing = resourceService.create(
+                new WellnessResource(null, "Old Title", null, "bulk-old", null));
+        long unknownId = existing.getId() + 1_000_000;
+        long since = changeLog.snapshot().getVersion();
+        clearInvocations(publisher);
+        String ndjson = row(existing.getId(), "Renamed", "bulk-new") + "\n"
+                + row(unknownId, "Stray Id", "bulk-new") + "\n"
+                + row(null, "Fresh", "bulk-new") + "\n";
+
+        // WHEN
+        BulkImportResult result = importService.importResources(body(ndjson));
+
+        // THEN: the known id is updated in place; the unknown one gets a new id rather than its own
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getBatches()).isEqualTo(1);
+        assertThat(repository.findById(existing.getId())).get()
+                .extracting(WellnessResource::getTitle, WellnessResource::getCategory)
+                .containsExactly("Renamed", "bulk-new");
+        assertThat(repository.existsById(unknownId)).isFalse();
+        assertThat(repository.findByCategory("bulk-new")).hasSize(3);
+
+        assertThat(changeLog.entriesSince(since, 1000)).hasSize(3)
+                .allMatch(entry -> "bulk-new".equals(entry.getCategory()));
+        assertThat(facetService.counts()).containsEntry("bulk-new", 3L).doesNotContainKey("bulk-old");
+        verify(publisher, times(1)).publishEvict(eq(ResourceCacheKeys.CACHE_NAME), anyString());
+    }
+
+    @Test
+    void shouldAllocateIdsPastExplicitlyInsertedRowsOnceTheSequenceIsRealigned() throws IOException {
+        // GIVEN: a row inserted with an explicit id inside the next block the sequence hands out
+        Long explicitId = jdbcTemplate.queryForObject("SELECT last_value + 10 FROM wellness_resource_seq", Long.class);
+        jdbcTemplate.update("INSERT INTO wellness_resource (id, title, category) VALUES (?, 'Explicit', 'bulk-seq')",
+                explicitId);
+
+        // WHEN: schema.sql runs again (as on the next start), then an import draws fresh blocks
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 2 * BATCH_SIZE; i++) {
+            ndjson.append(row(null, "Sequenced " + i, "bulk-seq")).append('\n');
+        }
+        BulkImportResult result = importService.importResources(body(ndjson.toString()));
+
+        // THEN: no new id collides with the explicit one
+        assertThat(result.getCreated()).isEqualTo(2 * BATCH_SIZE);
+        assertThat(repository.findByCategory("bulk-seq")).hasSize(2 * BATCH_SIZE + 1);
+        assertThat(repository.findById(explicitId)).get()
+                .extracting(WellnessResource::getTitle).isEqualTo("Explicit");
+
+        // and once aligned, later starts leave the sequence where the replicas put it
+        Long aligned = jdbcTemplate.queryForObject("SELECT last_value FROM wellness_resource_seq", Long.class);
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        assertThat(jdbcTemplate.queryForObject("SELECT last_value FROM wellness_resource_seq", Long.class))
+                .isEqualTo(aligned);
+    }
+
+    @Test
+    void shouldKeepChunksCommittedBeforeAMalformedRow() {
+        // GIVEN: one full chunk, ten more rows, then garbage
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < BATCH_SIZE + 10; i++) {
+            ndjson.append(row(null, "Partial " + i, "bulk-partial")).append('\n');
+        }
+        ndjson.append("{not json\n");
+        long since = changeLog.snapshot().getVersion();
+        clearInvocations(publisher);
+
+        // WHEN
+        assertThatThrownBy(() -> importService.importResources(body(ndjson.toString())))
+                .isInstanceOf(IOException.class);
+
+        // THEN: only the committed chunk is stored, logged and counted, and it was still invalidated
+        assertThat(repository.count()).isEqualTo(BATCH_SIZE);
+        assertThat(changeLog.entriesSince(since, 1000)).hasSize(BATCH_SIZE);
+        assertThat(facetService.counts()).containsEntry("bulk-partial", (long) BATCH_SIZE);
+        verify(publisher, times(1)).publishEvict(eq(ResourceCacheKeys.CACHE_NAME), anyString());
+    }
+
+    private static String row(Long id, String title, String category) {
+        return "{" + (id != null ? "\"id\":" + id + "," : "")
+                + "\"title\":\"" + title + "\",\"description\":\"Imported\",\"category\":\"" + category + "\"}";
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,118 @@
+package ca.gbc.comp3095.wellnessresourceservice;
+
+import ca.gbc.comp3095.wellnessresourceservice.cache.ResourceCacheCodec;
+import ca.gbc.comp3095.wellnessresourceservice.dto.VersionedResources;
+import ca.gbc.comp3095.wellnessresourceservice.model.WellnessResource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the cache codec against the JDK serialization RedisCache used before it,
+ * on a resource list of realistic size. Sizes and compatibility are asserted; timings
+ * depend on the machine, so they are only logged, by the benchmark-tagged test that
+ * {@code gradle benchmark} runs.
+ */
+class ResourceCacheCodecBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceCacheCodecBenchmarkTest.class);
+
+    private static final int ITERATIONS = 2_000;
+
+    private final JdkSerializationRedisSerializer legacy = new JdkSerializationRedisSerializer();
+    private final ResourceCacheCodec smile = new ResourceCacheCodec(ResourceCacheCodec.Format.SMILE, 2048,
+            new SimpleMeterRegistry());
+    private final ResourceCacheCodec smileUncompressed = new ResourceCacheCodec(ResourceCacheCodec.Format.SMILE, Integer.MAX_VALUE,
+            new SimpleMeterRegistry());
+
+    @Test
+    void smileEncodingShouldBeSmallerThanJdkSerialization() {
+        // GIVEN
+        VersionedResources list = sampleList(500);
+
+        // WHEN
+        byte[] jdkBytes = legacy.serialize(list);
+        byte[] smileBytes = smileUncompressed.serialize(list);
+        byte[] compressedBytes = smile.serialize(list);
+
+        // THEN
+        assertThat(smileBytes.length).isLessThan(jdkBytes.length);
+        assertThat(compressedBytes.length).isLessThan(smileBytes.length);
+        assertThat(smile.deserialize(compressedBytes)).isEqualTo(list);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void reportEncodeAndDecodeCost() {
+        VersionedResources list = sampleList(500);
+
+        report("jdk", legacy, list);
+        report("smile", smileUncompressed, list);
+        report("smile+gzip", smile, list);
+    }
+
+    @Test
+    void shouldReadEntriesWrittenBeforeTheCodec() {
+        // GIVEN: a value written by the old default serializer
+        VersionedResources list = sampleList(10);
+        byte[] legacyBytes = legacy.serialize(list);
+
+        // THEN
+        assertThat(smile.deserialize(legacyBytes)).isEqualTo(list);
+    }
+
+    @Test
+    void shouldRoundTripNullsAndTreatUnknownVersionsAsMisses() {
+        // GIVEN
+        byte[] nullBytes = smile.serialize(NullValue.INSTANCE);
+        byte[] future = smile.serialize(sampleList(1));
+        future[2] = 99;
+
+        // THEN
+        assertThat(smile.deserialize(nullBytes)).isSameAs(NullValue.INSTANCE);
+        assertThat(smile.deserialize(future)).isNull();
+    }
+
+    private static void report(String label, RedisSerializer<Object> serializer, VersionedResources list) {
+        byte[] bytes = serializer.serialize(list);
+        for (int i = 0; i < ITERATIONS / 10; i++) {
+            serializer.deserialize(serializer.serialize(list));
+        }
+
+        long encodeStart = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            serializer.serialize(list);
+        }
+        long encodeNanos = (System.nanoTime() - encodeStart) / ITERATIONS;
+
+        long decodeStart = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            serializer.deserialize(bytes);
+        }
+        long decodeNanos = (System.nanoTime() - decodeStart) / ITERATIONS;
+
+        logger.info(String.format("%-11s %8d bytes  encode %7d us  decode %7d us",
+                label, bytes.length, encodeNanos / 1000, decodeNanos / 1000));
+    }
+
+    private static VersionedResources sampleList(int size) {
+        List<WellnessResource> items = new ArrayList<>();
+        for (long i = 1; i <= size; i++) {
+            items.add(new WellnessResource(i, "Resource " + i,
+                    "Guided session number " + i + " covering breathing, sleep and stress management",
+                    i % 2 == 0 ? "mindfulness" : "fitness",
+                    "https://wellness.example.com/resources/" + i));
+        }
+        return new VersionedResources("1700000000000-" + size, items);
+    }
+}
@@ -0,0 +1,171 @@
+package ca.gbc.comp3095.wellnessresourceservice;
+
+import ca.gbc.comp3095.wellnessresourceservice.cache.CacheInvalidationListener;
+import ca.gbc.comp3095.wellnessresourceservice.cache.CacheInvalidationPublisher;
+import ca.gbc.comp3095.wellnessresourceservice.cache.TwoTierCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two replicas' {@link TwoTierCacheManager}s sharing one Redis, wired as in RedisConfig
+ * but without a Spring context: L1 misses fall through to Redis and backfill L1, writes
+ * on one replica drop the other's L1 copy over pub/sub, and the tier meters follow.
+ */
+@Testcontainers
+class TwoTierCacheRedisIT {
+
+    private static final String CACHE = "resources";
+    private static final String CHANNEL = "wellness:cache:invalidation:test";
+    private static final Duration PROPAGATION_TIMEOUT = Duration.ofSeconds(5);
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:alpine"))
+            .withExposedPorts(6379);
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisCacheManager sharedL2;
+    private Replica first;
+    private Replica second;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        connectionFactory.getConnection().serverCommands().flushAll();
+        sharedL2 = RedisCacheManager.create(connectionFactory);
+        first = new Replica(connectionFactory);
+        second = new Replica(connectionFactory);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        first.close();
+        second.close();
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void shouldFallThroughToRedisAndServeRepeatsFromL1() {
+        // GIVEN: a value only in Redis, as written by some other replica
+        sharedL2.getCache(CACHE).put("category:sleep", "sleep list");
+
+        // WHEN
+        Cache.ValueWrapper fromRedis = second.cache.get("category:sleep");
+        Cache.ValueWrapper fromL1 = second.cache.get("category:sleep");
+        Cache.ValueWrapper missing = second.cache.get("category:none");
+
+        // THEN: one L1 miss served by Redis, then an L1 hit; the unknown key misses both tiers
+        assertThat(fromRedis).isNotNull().extracting(Cache.ValueWrapper::get).isEqualTo("sleep list");
+        assertThat(fromL1).isNotNull().extracting(Cache.ValueWrapper::get).isEqualTo("sleep list");
+        assertThat(missing).isNull();
+        assertThat(second.gets("l1", "hit")).isEqualTo(1);
+        assertThat(second.gets("l1", "miss")).isEqualTo(2);
+        assertThat(second.gets("l2", "hit")).isEqualTo(1);
+        assertThat(second.gets("l2", "miss")).isEqualTo(1);
+        assertThat(second.hitRatio("l1")).isEqualTo(1.0 / 3);
+        assertThat(second.hitRatio("l2")).isEqualTo(0.5);
+        assertThat(second.meters.get("wellness.cache.l1.size").tags("cache", CACHE).gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldDropOtherReplicasL1CopyWhenAKeyIsWritten() throws InterruptedException {
+        // GIVEN: the second replica holds the value in L1
+        sharedL2.getCache(CACHE).put("category:sleep", "v1");
+        assertThat(second.cache.get("category:sleep").get()).isEqualTo("v1");
+        assertThat(second.cache.get("category:sleep").get()).isEqualTo("v1");
+        assertThat(second.gets("l1", "hit")).isEqualTo(1);
+
+        // WHEN
+        first.cache.put("category:sleep", "v2");
+
+        // THEN: the second replica's stale L1 copy is dropped, so it rereads Redis,
+        // while the writer ignores its own broadcast and keeps serving from L1
+        assertThat(awaitValue(second.cache, "category:sleep", "v2")).isTrue();
+        double firstL1Hits = first.gets("l1", "hit");
+        assertThat(first.cache.get("category:sleep").get()).isEqualTo("v2");
+        assertThat(first.gets("l1", "hit")).isEqualTo(firstL1Hits + 1);
+    }
+
+    @Test
+    void shouldDropOtherReplicasL1WhenTheCacheIsCleared() throws InterruptedException {
+        // GIVEN
+        sharedL2.getCache(CACHE).put("category:sleep", "sleep list");
+        assertThat(second.cache.get("category:sleep")).isNotNull();
+
+        // WHEN
+        first.cache.clear();
+
+        // THEN
+        assertThat(awaitValue(second.cache, "category:sleep", null)).isTrue();
+        assertThat(second.meters.get("wellness.cache.l1.size").tags("cache", CACHE).gauge().value()).isZero();
+    }
+
+    // Pub/sub delivery is asynchronous; poll until the replica sees the expected value
+    private static boolean awaitValue(Cache cache, String key, Object expected) throws InterruptedException {
+        long deadline = System.nanoTime() + PROPAGATION_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            Cache.ValueWrapper wrapper = cache.get(key);
+            if (Objects.equals(wrapper != null ? wrapper.get() : null, expected)) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return false;
+    }
+
+    /** One replica's cache stack: its own L1, publisher, listener and meters. */
+    private static class Replica implements AutoCloseable {
+        final MeterRegistry meters = new SimpleMeterRegistry();
+        final RedisMessageListenerContainer listener = new RedisMessageListenerContainer();
+        final Cache cache;
+
+        Replica(LettuceConnectionFactory connectionFactory) {
+            StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+            CacheInvalidationPublisher publisher = new CacheInvalidationPublisher(redisTemplate, CHANNEL);
+            TwoTierCacheManager manager = new TwoTierCacheManager(RedisCacheManager.create(connectionFactory),
+                    redisTemplate, publisher, null, meters, 100, Duration.ofMinutes(5), 0.0);
+            cache = manager.getCache(CACHE);
+
+            listener.setConnectionFactory(connectionFactory);
+            listener.addMessageListener(new CacheInvalidationListener(manager, publisher.getInstanceId()),
+                    new ChannelTopic(CHANNEL));
+            listener.afterPropertiesSet();
+            // Blocks until subscribed, so no broadcast in the test can be missed
+            listener.start();
+        }
+
+        double gets(String tier, String result) {
+            return meters.get("wellness.cache.gets")
+                    .tags("cache", CACHE, "tier", tier, "result", result)
+                    .functionCounter().count();
+        }
+
+        double hitRatio(String tier) {
+            return meters.get("wellness.cache.hit.ratio").tags("cache", CACHE, "tier", tier).gauge().value();
+        }
+
+        @Override
+        public void close() throws Exception {
+            listener.destroy();
+        }
+    }
+}
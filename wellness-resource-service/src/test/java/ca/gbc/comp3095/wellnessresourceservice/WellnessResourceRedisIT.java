@@ -1,28 +1,58 @@
 package ca.gbc.comp3095.wellnessresourceservice;
 
+import ca.gbc.comp3095.wellnessresourceservice.cache.ResourceVersions;
+import ca.gbc.comp3095.wellnessresourceservice.dto.ResourceChangeEvent;
+import ca.gbc.comp3095.wellnessresourceservice.dto.ResourceChanges;
+import ca.gbc.comp3095.wellnessresourceservice.dto.ResourceSnapshot;
 import ca.gbc.comp3095.wellnessresourceservice.model.WellnessResource;
 import ca.gbc.comp3095.wellnessresourceservice.repository.WellnessResourceRepository;
+import ca.gbc.comp3095.wellnessresourceservice.service.ResourceChangeLog;
+import ca.gbc.comp3095.wellnessresourceservice.service.ResourceChangeStream;
+import ca.gbc.comp3095.wellnessresourceservice.service.ResourceFacetService;
+import ca.gbc.comp3095.wellnessresourceservice.service.WellnessResourceService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
+import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
  * Integration test for Redis caching functionality using TestContainers.
  * Verifies that resources are properly cached and evicted.
  */
 @SpringBootTest
+@AutoConfigureMockMvc
 @Testcontainers
 class WellnessResourceRedisIT {
 
@@ -43,6 +73,27 @@ class WellnessResourceRedisIT {
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private WellnessResourceService resourceService;
+
+    @Autowired
+    private ResourceFacetService facetService;
+
+    @Autowired
+    private ResourceChangeLog changeLog;
+
+    @Autowired
+    private ResourceChangeStream changeStream;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoSpyBean
+    private ResourceVersions versions;
+
     @DynamicPropertySource
     static void configureProperties(org.springframework.test.context.DynamicPropertyRegistry registry) {
         // PostgreSQL configuration
@@ -185,5 +236,321 @@ class WellnessResourceRedisIT {
         assertThat(remainingResources).hasSize(1);
         assertThat(remainingResources.get(0).getTitle()).isEqualTo("Resource 1");
     }
-}
 
+    @Test
+    void shouldOnlyEvictAffectedCategoriesWhenResourceMoves() {
+        // GIVEN: Three categories cached
+        WellnessResource fitness = new WellnessResource();
+        fitness.setTitle("Fitness Resource");
+        fitness.setCategory("fitness");
+        WellnessResource saved = resourceService.create(fitness);
+
+        WellnessResource academic = new WellnessResource();
+        academic.setTitle("Academic Resource");
+        academic.setCategory("academic");
+        resourceService.create(academic);
+
+        WellnessResource mindfulness = new WellnessResource();
+        mindfulness.setTitle("Mindfulness Resource");
+        mindfulness.setCategory("mindfulness");
+        resourceService.create(mindfulness);
+
+        resourceService.findByCategory("fitness");
+        resourceService.findByCategory("academic");
+        resourceService.findByCategory("mindfulness");
+
+        // WHEN: A resource moves from fitness to academic
+        WellnessResource moved = new WellnessResource();
+        moved.setTitle("Fitness Resource");
+        moved.setCategory("academic");
+        resourceService.update(saved.getId(), moved);
+
+        // THEN: Old and new category lists are evicted, unrelated ones stay cached
+        var cache = cacheManager.getCache("resources");
+        assertThat(cache.get("category:fitness")).isNull();
+        assertThat(cache.get("category:academic")).isNull();
+        assertThat(cache.get("category:mindfulness")).isNotNull();
+
+        // AND: The per-id entry was written through
+        WellnessResource cached = cache.get("id:" + saved.getId(), WellnessResource.class);
+        assertThat(cached).isNotNull();
+        assertThat(cached.getCategory()).isEqualTo("academic");
+        assertThat(resourceService.findByCategory("academic")).hasSize(2);
+    }
+
+    @Test
+    void shouldBumpListVersionOnlyForAffectedCategory() {
+        // GIVEN
+        String allBefore = resourceService.currentVersion("all");
+        String fitnessBefore = resourceService.currentVersion("category:fitness");
+        String academicBefore = resourceService.currentVersion("category:academic");
+
+        // WHEN
+        WellnessResource resource = new WellnessResource();
+        resource.setTitle("Fitness Resource");
+        resource.setCategory("fitness");
+        resourceService.create(resource);
+
+        // THEN: ETags change for lists containing the resource only
+        assertThat(resourceService.currentVersion("all")).isNotEqualTo(allBefore);
+        assertThat(resourceService.currentVersion("category:fitness")).isNotEqualTo(fitnessBefore);
+        assertThat(resourceService.currentVersion("category:academic")).isEqualTo(academicBefore);
+    }
+
+    @Test
+    void shouldRunOneLoaderForConcurrentMisses() throws Exception {
+        // GIVEN: a slow loader and many callers missing the same key at once
+        Cache cache = cacheManager.getCache("resources");
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        // WHEN
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return cache.get("category:coalesced", () -> {
+                    loads.incrementAndGet();
+                    Thread.sleep(200);
+                    return "loaded";
+                });
+            }));
+        }
+        start.countDown();
+
+        // THEN: every caller gets the value, the loader ran once
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+        }
+        executor.shutdown();
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRefreshListInPlace() {
+        // GIVEN: a cached category list that went stale behind the cache's back
+        WellnessResource resource = new WellnessResource();
+        resource.setTitle("Sleep Resource");
+        resource.setCategory("sleep");
+        resourceService.create(resource);
+        assertThat(resourceService.findByCategory("sleep")).hasSize(1);
+
+        WellnessResource another = new WellnessResource();
+        another.setTitle("Another Sleep Resource");
+        another.setCategory("sleep");
+        repository.save(another);
+
+        // WHEN
+        boolean refreshed = resourceService.refreshList("category:sleep");
+
+        // THEN: the entry was replaced, not evicted
+        assertThat(refreshed).isTrue();
+        assertThat(cacheManager.getCache("resources").get("category:sleep")).isNotNull();
+        assertThat(resourceService.findByCategory("sleep")).hasSize(2);
+    }
+
+    @Test
+    void shouldNotCacheListLoadedWhileAWriteChangedIt() {
+        // GIVEN: a write that commits, evicts and bumps right after the reader captured the version
+        resourceService.create(new WellnessResource(null, "Race Resource", "First", "race", null));
+        cacheManager.getCache("resources").evict("category:race");
+        AtomicBoolean raced = new AtomicBoolean();
+        doAnswer(invocation -> {
+            Object captured = invocation.callRealMethod();
+            if (raced.compareAndSet(false, true)) {
+                resourceService.create(new WellnessResource(null, "Racing Resource", "Second", "race", null));
+            }
+            return captured;
+        }).when(versions).current("category:race");
+
+        // WHEN
+        List<WellnessResource> loaded = resourceService.findByCategory("race");
+
+        // THEN: the caller gets what was loaded, but it is not cached under the old version
+        assertThat(raced).isTrue();
+        assertThat(loaded).isNotEmpty();
+        assertThat(cacheManager.getCache("resources").get("category:race")).isNull();
+        assertThat(resourceService.findByCategory("race")).hasSize(2);
+        assertThat(cacheManager.getCache("resources").get("category:race")).isNotNull();
+    }
+
+    @Test
+    void shouldTagGzippedAndIdentityListBodiesDifferently() throws Exception {
+        // GIVEN: a category list large enough to be cached gzipped
+        for (int i = 0; i < 40; i++) {
+            repository.save(new WellnessResource(null, "Etag Resource " + i,
+                    "A description long enough to compress", "etag", null));
+        }
+        String version = resourceService.currentVersion("category:etag");
+        String identityTag = "\"" + version + "\"";
+        String gzipTag = "\"" + version + "-gzip\"";
+
+        // WHEN / THEN: each representation carries its own strong ETag
+        mockMvc.perform(get("/api/resources/category/etag").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, gzipTag));
+        mockMvc.perform(get("/api/resources/category/etag"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.ETAG, identityTag));
+
+        // and either validator revalidates to its own tag
+        mockMvc.perform(get("/api/resources/category/etag").header(HttpHeaders.IF_NONE_MATCH, gzipTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, gzipTag));
+        mockMvc.perform(get("/api/resources/category/etag").header(HttpHeaders.IF_NONE_MATCH, identityTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, identityTag));
+    }
+
+    @Test
+    void shouldServeAndInvalidateEventResourceLinks() {
+        // GIVEN
+        WellnessResource linked = new WellnessResource();
+        linked.setTitle("Linked Resource");
+        linked.setCategory("fitness");
+        linked = resourceService.create(linked);
+        WellnessResource unlinked = new WellnessResource();
+        unlinked.setTitle("Unlinked Resource");
+        unlinked.setCategory("fitness");
+        resourceService.create(unlinked);
+
+        // WHEN
+        resourceService.link(42L, linked.getId());
+
+        // THEN: only linked resources are returned, and updates reach the cached event list
+        assertThat(resourceService.findByEventVersioned(42L).getItems())
+                .extracting(WellnessResource::getTitle).containsExactly("Linked Resource");
+        linked.setTitle("Renamed Resource");
+        resourceService.update(linked.getId(), linked);
+        assertThat(resourceService.findByEventVersioned(42L).getItems())
+                .extracting(WellnessResource::getTitle).containsExactly("Renamed Resource");
+
+        resourceService.unlink(42L, linked.getId());
+        assertThat(resourceService.findByEventVersioned(42L).getItems()).isEmpty();
+    }
+
+    @Test
+    void shouldResolveBatchFromCacheAndBackfillMisses() {
+        // GIVEN: one resource cached by id, one only in the database
+        WellnessResource cached = new WellnessResource();
+        cached.setTitle("Cached Resource");
+        cached.setCategory("fitness");
+        cached = resourceService.create(cached);
+        WellnessResource uncached = new WellnessResource();
+        uncached.setTitle("Uncached Resource");
+        uncached.setCategory("fitness");
+        uncached = repository.save(uncached);
+
+        // WHEN
+        List<WellnessResource> batch = resourceService.findAllById(List.of(uncached.getId(), cached.getId(), -1L));
+
+        // THEN: request order is kept, unknown ids are dropped, misses are now cached
+        assertThat(batch).extracting(WellnessResource::getTitle)
+                .containsExactly("Uncached Resource", "Cached Resource");
+        assertThat(cacheManager.getCache("resources").get("id:" + uncached.getId())).isNotNull();
+        assertThat(cacheManager.getCache("resources").get("id:-1")).isNotNull();
+    }
+
+    @Test
+    void shouldKeepCategoryFacetsInStepWithWrites() {
+        // GIVEN: counters rebuilt from an empty table
+        facetService.reconcile();
+        WellnessResource resource = new WellnessResource();
+        resource.setTitle("Facet Resource");
+        resource.setCategory("fitness");
+        resource = resourceService.create(resource);
+        WellnessResource other = new WellnessResource();
+        other.setTitle("Other Resource");
+        other.setCategory("fitness");
+        resourceService.create(other);
+
+        // WHEN: one resource moves category
+        resource.setCategory("sleep");
+        resourceService.update(resource.getId(), resource);
+
+        // THEN: counters match a fresh GROUP BY
+        assertThat(facetService.counts()).containsEntry("fitness", 1L).containsEntry("sleep", 1L);
+        assertThat(facetService.reconcile()).isEqualTo(facetService.counts());
+    }
+
+    @Test
+    void shouldRebuildFacetsLostFromRedisInsteadOfCountingOnlyNewWrites() {
+        // GIVEN: two counted resources, then the hash is lost (Redis flush or restart)
+        resourceService.create(new WellnessResource(null, "Run", null, "fitness", null));
+        resourceService.create(new WellnessResource(null, "Swim", null, "fitness", null));
+        facetService.reconcile();
+        redisTemplate.delete("wellness:resources:facets");
+
+        // WHEN: a write arrives before any read
+        resourceService.create(new WellnessResource(null, "Nap", null, "sleep", null));
+
+        // THEN: the increment did not recreate a partial hash; the read rebuilds all counts
+        assertThat(redisTemplate.hasKey("wellness:resources:facets")).isFalse();
+        assertThat(facetService.counts()).containsExactly(entry("fitness", 2L), entry("sleep", 1L));
+    }
+
+    @Test
+    void shouldRejectNeverWrittenCategoriesWithoutCaching() {
+        // GIVEN
+        String probed = "no-such-category-" + System.nanoTime();
+
+        // WHEN
+        List<WellnessResource> result = resourceService.findByCategory(probed);
+
+        // THEN: empty, and nothing was cached for the probe
+        assertThat(result).isEmpty();
+        assertThat(cacheManager.getCache("resources").get("category:" + probed)).isNull();
+    }
+
+    @Test
+    void shouldServeDeltasAfterSnapshotCollapsedPerResource() {
+        // GIVEN
+        WellnessResource kept = resourceService.create(new WellnessResource(null, "Box Breathing", "4-4-4-4", "mindfulness", null));
+        ResourceSnapshot snapshot = changeLog.snapshot();
+
+        // WHEN: two updates of one resource, a create and a create-then-delete
+        kept.setTitle("Box Breathing v2");
+        resourceService.update(kept.getId(), kept);
+        kept.setTitle("Box Breathing v3");
+        resourceService.update(kept.getId(), kept);
+        WellnessResource added = resourceService.create(new WellnessResource(null, "Stretching", "Daily", "fitness", null));
+        WellnessResource removed = resourceService.create(new WellnessResource(null, "Old", "Gone", "fitness", null));
+        resourceService.delete(removed.getId());
+        ResourceChanges changes = changeLog.changesSince(snapshot.getVersion(), 100);
+
+        // THEN
+        assertThat(snapshot.getItems()).extracting(WellnessResource::getId).contains(kept.getId());
+        assertThat(changes.getVersion()).isEqualTo(snapshot.getVersion() + 5);
+        assertThat(changes.isHasMore()).isFalse();
+        assertThat(changes.getUpserts()).extracting(WellnessResource::getTitle)
+                .containsExactly("Box Breathing v3", "Stretching");
+        assertThat(changes.getDeleted()).containsExactly(removed.getId());
+        assertThat(changeLog.changesSince(changes.getVersion(), 100).getUpserts()).isEmpty();
+        assertThat(changeLog.changesSince(snapshot.getVersion(), 2).isHasMore()).isTrue();
+    }
+
+    @Test
+    void shouldReplayMissedChangesThenStreamLiveOnes() {
+        // GIVEN: a change the subscriber missed while disconnected
+        long since = changeLog.snapshot().getVersion();
+        WellnessResource missed = resourceService.create(new WellnessResource(null, "Missed", "Before reconnect", "sleep", null));
+
+        // WHEN / THEN
+        StepVerifier.create(changeStream.subscribe(since))
+                .assertNext(e -> {
+                    assertThat(e.getResourceId()).isEqualTo(missed.getId());
+                    assertThat(e.getVersion()).isEqualTo(since + 1);
+                })
+                .then(() -> resourceService.delete(missed.getId()))
+                .assertNext(e -> {
+                    assertThat(e.getResourceId()).isEqualTo(missed.getId());
+                    assertThat(e.getType()).isEqualTo(ResourceChangeEvent.DELETE);
+                    assertThat(e.getCategory()).isEqualTo("sleep");
+                })
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+    }
+}
@@ -1,26 +1,40 @@
 package ca.gbc.comp3095.wellnessresourceservice;
 
+import ca.gbc.comp3095.wellnessresourceservice.dto.ResourcePage;
 import ca.gbc.comp3095.wellnessresourceservice.model.WellnessResource;
 import ca.gbc.comp3095.wellnessresourceservice.repository.WellnessResourceRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
  * Integration tests for Wellness Resource Service using TestContainers for PostgreSQL.
  * Replaces static test configuration with dynamic TestContainers setup.
  */
 @SpringBootTest
+@AutoConfigureMockMvc
 @Testcontainers
 public class WellnessResourceServiceIntegrationTest {
 
@@ -33,6 +47,12 @@ public class WellnessResourceServiceIntegrationTest {
     @Autowired
     private WellnessResourceRepository repository;
 
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @DynamicPropertySource
     static void configureProperties(DynamicPropertyRegistry registry) {
         registry.add("spring.datasource.url", postgres::getJdbcUrl);
@@ -110,4 +130,190 @@ public class WellnessResourceServiceIntegrationTest {
         assertThat(fitnessResources).hasSize(1);
         assertThat(fitnessResources.get(0).getTitle()).isEqualTo("Fitness Resource");
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldPageResourcesByIdKeyset() {
+        // GIVEN
+        for (int i = 1; i <= 5; i++) {
+            WellnessResource resource = new WellnessResource();
+            resource.setTitle("Resource " + i);
+            resource.setCategory("fitness");
+            repository.save(resource);
+        }
+
+        // WHEN
+        List<WellnessResource> firstPage = repository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2));
+        Long cursor = firstPage.get(firstPage.size() - 1).getId();
+        List<WellnessResource> secondPage = repository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(2));
+
+        // THEN
+        assertThat(firstPage).extracting(WellnessResource::getTitle).containsExactly("Resource 1", "Resource 2");
+        assertThat(secondPage).extracting(WellnessResource::getTitle).containsExactly("Resource 3", "Resource 4");
+    }
+
+    @Test
+    void shouldSearchTitleAndDescriptionWithPrefixMatchesFirst() {
+        // GIVEN
+        WellnessResource described = new WellnessResource();
+        described.setTitle("Evening Routine");
+        described.setDescription("Guided meditation before sleep");
+        described.setCategory("mindfulness");
+        repository.save(described);
+
+        WellnessResource titled = new WellnessResource();
+        titled.setTitle("Meditation Basics");
+        titled.setCategory("mindfulness");
+        repository.save(titled);
+
+        WellnessResource unrelated = new WellnessResource();
+        unrelated.setTitle("Campus Gym Hours");
+        unrelated.setCategory("fitness");
+        repository.save(unrelated);
+
+        // WHEN
+        List<WellnessResource> results = repository.search("medit", "%medit%", "medit%", 10);
+
+        // THEN
+        assertThat(results).extracting(WellnessResource::getTitle)
+                .containsExactly("Meditation Basics", "Evening Routine");
+    }
+
+    @Test
+    void shouldCapRequestedPageSizeAtConfiguredMaximum() throws Exception {
+        // GIVEN: more resources than the largest page (wellness.resources.page.max-size=200)
+        saveResources(250, "fitness");
+
+        // WHEN
+        ResourcePage capped = page("/api/resources?size=1000");
+        ResourcePage byDefault = page("/api/resources?cursor=0");
+
+        // THEN: the cap, then the default page size when only a cursor is given
+        assertThat(capped.getItems()).hasSize(200);
+        assertThat(capped.getSize()).isEqualTo(200);
+        assertThat(capped.getNextCursor()).isEqualTo(capped.getItems().get(199).getId());
+        assertThat(byDefault.getItems()).hasSize(50);
+    }
+
+    @Test
+    void shouldWalkEveryPageByPassingNextCursorBack() throws Exception {
+        // GIVEN
+        saveResources(7, "fitness");
+
+        // WHEN
+        List<String> titles = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        ResourcePage current = page("/api/resources?size=3");
+        while (true) {
+            current.getItems().forEach(resource -> titles.add(resource.getTitle()));
+            pageSizes.add(current.getItems().size());
+            if (current.getNextCursor() == null) {
+                break;
+            }
+            current = page("/api/resources?size=3&cursor=" + current.getNextCursor());
+        }
+
+        // THEN: every row once, in id order, and no cursor on the last page
+        assertThat(pageSizes).containsExactly(3, 3, 1);
+        assertThat(titles).containsExactly("Resource 1", "Resource 2", "Resource 3", "Resource 4",
+                "Resource 5", "Resource 6", "Resource 7");
+    }
+
+    @Test
+    void shouldStreamEveryRowAsNdjson() throws Exception {
+        // GIVEN
+        saveResources(120, "mindfulness");
+
+        // WHEN
+        MvcResult started = mockMvc.perform(get("/api/resources/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        // THEN: one JSON object per line, every row, in id order
+        List<WellnessResource> exported = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            exported.add(objectMapper.readValue(line, WellnessResource.class));
+        }
+        assertThat(exported).hasSize(120);
+        assertThat(exported).extracting(WellnessResource::getId).isSorted().doesNotHaveDuplicates();
+        assertThat(exported.get(0).getTitle()).isEqualTo("Resource 1");
+        assertThat(exported.get(119).getTitle()).isEqualTo("Resource 120");
+    }
+
+    @Test
+    void shouldRejectSearchQueriesShorterThanThreeCharacters() throws Exception {
+        // WHEN / THEN: too short to use the trigram indexes, surrounding blanks not counted
+        mockMvc.perform(get("/api/resources/search").param("q", "ab"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/resources/search").param("q", "  ab  "))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/resources/search").param("q", "abc"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldMatchLikeWildcardsInSearchQueriesLiterally() throws Exception {
+        // GIVEN: titles that a raw % or _ would also match
+        saveResource("100% Focus", "academic");
+        saveResource("1000 Focus Tips", "academic");
+        saveResource("mind_set", "mindfulness");
+        saveResource("mindset reset", "mindfulness");
+
+        // WHEN
+        List<String> percent = searchTitles("100%");
+        List<String> underscore = searchTitles("d_s");
+
+        // THEN
+        assertThat(percent).containsExactly("100% Focus");
+        assertThat(underscore).containsExactly("mind_set");
+    }
+
+    @Test
+    void shouldSearchCaseInsensitively() throws Exception {
+        // GIVEN
+        saveResource("Meditation Basics", "mindfulness");
+        saveResource("Campus Gym Hours", "fitness");
+
+        // WHEN / THEN
+        assertThat(searchTitles("MEDIT")).containsExactly("Meditation Basics");
+        assertThat(searchTitles("basics")).containsExactly("Meditation Basics");
+        assertThat(searchTitles("gYm hOuRs")).containsExactly("Campus Gym Hours");
+    }
+
+    private void saveResources(int count, String category) {
+        List<WellnessResource> resources = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            WellnessResource resource = new WellnessResource();
+            resource.setTitle("Resource " + i);
+            resource.setCategory(category);
+            resources.add(resource);
+        }
+        repository.saveAll(resources);
+    }
+
+    private void saveResource(String title, String category) {
+        WellnessResource resource = new WellnessResource();
+        resource.setTitle(title);
+        resource.setCategory(category);
+        repository.save(resource);
+    }
+
+    private List<String> searchTitles(String query) throws Exception {
+        String json = mockMvc.perform(get("/api/resources/search").param("q", query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return Arrays.stream(objectMapper.readValue(json, WellnessResource[].class))
+                .map(WellnessResource::getTitle)
+                .toList();
+    }
+
+    private ResourcePage page(String url) throws Exception {
+        String json = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(json, ResourcePage.class);
+    }
+}